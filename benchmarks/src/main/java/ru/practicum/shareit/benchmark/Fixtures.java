@@ -0,0 +1,190 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemForRequestView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+/**
+ * Детерминированные данные для бенчмарков и заглушки репозиториев,
+ * чтобы измерялась работа сервисов в памяти, а не обращения к БД.
+ */
+final class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    static final User OWNER = new User(1L, "Владелец", "owner@mail.ru");
+    static final User BOOKER = new User(2L, "Арендатор", "booker@mail.ru");
+
+    private Fixtures() {
+    }
+
+    static List<Item> items(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new Item(id, OWNER, "Дрель " + id, "Ударная дрель с набором свёрл " + id, true, null))
+                .toList();
+    }
+
+    static List<Booking> bookings(List<Item> items) {
+        List<Booking> bookings = new ArrayList<>(items.size());
+        for (Item item : items) {
+            bookings.add(new Booking(item.getId(), NOW.plusDays(1), NOW.plusDays(3), item, BOOKER, Status.APPROVED));
+        }
+        return bookings;
+    }
+
+    static List<Comment> comments(List<Item> items) {
+        List<Comment> comments = new ArrayList<>(items.size());
+        for (Item item : items) {
+            comments.add(new Comment(item.getId(), "Отличная дрель, всё работает", item, BOOKER, NOW.minusDays(1)));
+        }
+        return comments;
+    }
+
+    static List<BookingItemView> bookingViews(List<Item> items, LocalDateTime start) {
+        return items.stream()
+                .<BookingItemView>map(item -> new BookingRow(item.getId(), item.getId(), start, start.plusDays(2),
+                        BOOKER.getId()))
+                .toList();
+    }
+
+    /**
+     * Отзывы к каждой вещи, сгруппированные по вещи, как их возвращает findLatestForItems.
+     */
+    static List<CommentView> commentViews(List<Item> items, int perItem) {
+        List<CommentView> comments = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(new CommentRow(id++, item.getId(), "Отзыв " + i, BOOKER.getName(), NOW.minusHours(i)));
+            }
+        }
+        return comments;
+    }
+
+    static List<ItemRequest> requests(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new ItemRequest(id, "Нужна дрель " + id, OWNER, NOW.minusDays(id)))
+                .toList();
+    }
+
+    static List<ItemForRequestView> requestItems(List<ItemRequest> requests, int perRequest) {
+        List<ItemForRequestView> items = new ArrayList<>(requests.size() * perRequest);
+        long id = 1;
+        for (ItemRequest request : requests) {
+            for (int i = 0; i < perRequest; i++) {
+                items.add(new ItemForRequestRow(id++, "Дрель " + i, BOOKER.getId(), request.getId()));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Реализация интерфейса репозитория, возвращающая заранее подготовленный результат по имени метода.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            if (!results.containsKey(method.getName())) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return results.get(method.getName());
+        });
+    }
+
+    private record BookingRow(Long itemId, Long id, LocalDateTime start, LocalDateTime end, Long bookerId)
+            implements BookingItemView {
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        @Override
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        @Override
+        public Long getBookerId() {
+            return bookerId;
+        }
+    }
+
+    private record CommentRow(Long id, Long itemId, String text, String authorName, LocalDateTime created)
+            implements CommentView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String getAuthorName() {
+            return authorName;
+        }
+
+        @Override
+        public LocalDateTime getCreated() {
+            return created;
+        }
+    }
+
+    private record ItemForRequestRow(Long itemId, String name, Long ownerId, Long requestId)
+            implements ItemForRequestView {
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+    }
+}
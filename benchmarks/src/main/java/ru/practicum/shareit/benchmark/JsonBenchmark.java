@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithDatesDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списков DTO в JSON тем же ObjectMapper, что строит Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<BookingOutDto> bookings;
+    private List<ItemWithDatesDto> items;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        BookingMapper bookingMapper = new BookingMapper();
+        ItemMapper itemMapper = new ItemMapper();
+        CommentMapper commentMapper = new CommentMapper();
+
+        List<Item> entities = Fixtures.items(size);
+        bookings = Fixtures.bookings(entities).stream()
+                .map(bookingMapper::toBookingOutDto)
+                .toList();
+        items = entities.stream()
+                .map(item -> {
+                    ItemWithDatesDto dto = itemMapper.toItemWithDatesDto(item);
+                    dto.setNextBooking(bookingMapper.toBookingItemDto(
+                            Fixtures.bookingViews(List.of(item), Fixtures.NOW).getFirst()));
+                    dto.setComments(Fixtures.commentViews(List.of(item), 3).stream()
+                            .map(commentMapper::toCommentDto)
+                            .toList());
+                    return dto;
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] bookingOutDtoList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemWithDatesDtoList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(items);
+    }
+}
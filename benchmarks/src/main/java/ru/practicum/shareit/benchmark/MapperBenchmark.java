@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithDatesDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование одной сущности или проекции в DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+
+    private Booking booking;
+    private BookingItemView bookingView;
+    private Item item;
+    private Comment comment;
+    private CommentView commentView;
+
+    @Setup
+    public void setUp() {
+        List<Item> items = Fixtures.items(1);
+        item = items.getFirst();
+        booking = Fixtures.bookings(items).getFirst();
+        bookingView = Fixtures.bookingViews(items, Fixtures.NOW).getFirst();
+        comment = Fixtures.comments(items).getFirst();
+        commentView = Fixtures.commentViews(items, 1).getFirst();
+    }
+
+    @Benchmark
+    public BookingOutDto bookingToBookingOutDto() {
+        return bookingMapper.toBookingOutDto(booking);
+    }
+
+    @Benchmark
+    public BookingItemDto bookingViewToBookingItemDto() {
+        return bookingMapper.toBookingItemDto(bookingView);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemWithDatesDto itemToItemWithDatesDto() {
+        return itemMapper.toItemWithDatesDto(item);
+    }
+
+    @Benchmark
+    public CommentDto commentToCommentDto() {
+        return commentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public CommentDto commentViewToCommentDto() {
+        return commentMapper.toCommentDto(commentView);
+    }
+
+    @Benchmark
+    public UserDto userToUserDto() {
+        return UserMapper.toUserDto(Fixtures.BOOKER);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithDatesDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.user.UserExistenceService;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответов getAllItems и getRequests в памяти: репозитории заменены заглушками
+ * с готовыми результатами, поэтому измеряются группировка и преобразование в DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int COMMENTS_PER_ITEM = 10;
+    private static final int ITEMS_PER_REQUEST = 3;
+
+    @Param({"20", "200"})
+    public int size;
+
+    private ItemServiceImpl itemService;
+    private ItemRequestServiceImpl itemRequestService;
+
+    @Setup
+    public void setUp() {
+        UserExistenceService userExistenceService = new UserExistenceService(
+                Fixtures.repository(UserRepository.class, Map.of("existsById", true)));
+
+        List<Item> items = Fixtures.items(size);
+        ItemRepository itemRepository = Fixtures.repository(ItemRepository.class, Map.of(
+                "findAllByOwnerId", items,
+                "findAllForRequests", Fixtures.requestItems(Fixtures.requests(size), ITEMS_PER_REQUEST)));
+        BookingRepository bookingRepository = Fixtures.repository(BookingRepository.class, Map.of(
+                "findLastBookingsForItems", Fixtures.bookingViews(items, Fixtures.NOW.minusDays(5)),
+                "findNextBookingsForItems", Fixtures.bookingViews(items, Fixtures.NOW.plusDays(5))));
+        CommentRepository commentRepository = Fixtures.repository(CommentRepository.class, Map.of(
+                "findLatestForItems", Fixtures.commentViews(items, COMMENTS_PER_ITEM)));
+        itemService = new ItemServiceImpl(itemRepository, null, userExistenceService, bookingRepository,
+                commentRepository, null, null, null, null, new ItemMapper(), new BookingMapper(), new CommentMapper());
+
+        List<ItemRequest> requests = Fixtures.requests(size);
+        ItemRequestRepository itemRequestRepository = Fixtures.repository(ItemRequestRepository.class, Map.of(
+                "findAllByRequesterId", requests));
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, null, userExistenceService,
+                itemRepository, new ItemRequestMapper(), new ItemMapper());
+    }
+
+    @Benchmark
+    public List<ItemWithDatesDto> getAllItems() {
+        return itemService.getAllItems(Fixtures.OWNER.getId());
+    }
+
+    @Benchmark
+    public List<ItemRequestWithItemsDto> getRequests() {
+        return itemRequestService.getRequests(Fixtures.OWNER.getId());
+    }
+}
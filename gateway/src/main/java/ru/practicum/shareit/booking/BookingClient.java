@@ -1,49 +1,69 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRegion;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient httpClient,
+                         ObjectMapper objectMapper, ResponseCache responseCache,
+                         ObservationRegistry observationRegistry) {
+        super(httpClient, new DefaultUriBuilderFactory(serverUrl + API_PREFIX), objectMapper, responseCache,
+                CacheRegion.BOOKINGS, observationRegistry);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingInDto bookingDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createBooking(Long userId, BookingInDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<byte[]>> approveBooking(Long userId, Long bookingId, Boolean approved) {
         return patch("/" + bookingId + "?approved={approved}", userId, Map.of("approved", approved), null);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserBookings(Long userId, BookingState stateParam) {
-        return get("?state={state}", userId, Map.of("state", stateParam));
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUserBookings(Long userId, BookingState stateParam,
+                                                     LocalDateTime afterStart, Long afterId, Integer size) {
+        return getPage("bookings", "", userId, stateParam, afterStart, afterId, size);
     }
 
-    public ResponseEntity<Object> getAllItemBookings(Long userId, BookingState stateParam) {
-        return get("/owner?state={state}", userId, Map.of("state", stateParam));
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItemBookings(Long userId, BookingState stateParam,
+                                                     LocalDateTime afterStart, Long afterId, Integer size) {
+        return getPage("bookings-owner", "/owner", userId, stateParam, afterStart, afterId, size);
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> getPage(String endpoint, String path, Long userId, BookingState stateParam,
+                                           LocalDateTime afterStart, Long afterId, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", stateParam);
+        parameters.put("size", size);
+        String query = path + "?state={state}&size={size}";
+        if (afterStart != null) {
+            parameters.put("afterStart", afterStart);
+            parameters.put("afterId", afterId);
+            query += "&afterStart={afterStart}&afterId={afterId}";
+        }
+        return getCached(endpoint, query, userId, parameters);
     }
 }
@@ -3,50 +3,78 @@ package ru.practicum.shareit.booking;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @Valid @RequestBody BookingInDto bookingDto) {
         return bookingClient.createBooking(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @PathVariable Long bookingId,
                                         @RequestParam Boolean approved) {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @PathVariable Long bookingId) {
         return bookingClient.getBookingById(userId, bookingId);
     }
 
+    /**
+     * Без size возвращается только первая страница из 20 бронирований. Если заголовок X-Has-More равен true,
+     * следующая страница запрашивается с afterStart и afterId последнего бронирования в ответе.
+     * Так же устроен список бронирований вещей владельца.
+     */
     @GetMapping
-    public ResponseEntity<Object> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(defaultValue = "ALL", required = false) String stateParam) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(defaultValue = "ALL", required = false) String stateParam,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                  @RequestParam(required = false) Long afterId,
+                                                  @RequestParam(defaultValue = "20") Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Неподдерживаемый тип state: " + stateParam));
-        return bookingClient.getAllUserBookings(userId, state);
+        validatePage(afterStart, afterId, size);
+        return bookingClient.getAllUserBookings(userId, state, afterStart, afterId, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllItemBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(defaultValue = "ALL", required = false) String stateParam) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItemBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(defaultValue = "ALL", required = false) String stateParam,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                  @RequestParam(required = false) Long afterId,
+                                                  @RequestParam(defaultValue = "20") Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Неподдерживаемый тип state: " + stateParam));
-        return bookingClient.getAllItemBookings(userId, state);
+        validatePage(afterStart, afterId, size);
+        return bookingClient.getAllItemBookings(userId, state, afterStart, afterId, size);
+    }
+
+    private static void validatePage(LocalDateTime afterStart, Long afterId, Integer size) {
+        if ((afterStart == null) != (afterId == null)) {
+            throw new IllegalArgumentException("Для продолжения выборки необходимо указать afterStart и afterId");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
     }
 }
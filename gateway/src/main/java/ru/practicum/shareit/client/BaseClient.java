@@ -1,121 +1,414 @@
 package ru.practicum.shareit.client;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
-import org.springframework.http.HttpEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.Propagator;
+import io.micrometer.observation.transport.SenderContext;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityConsumer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriBuilderFactory;
 
+/**
+ * Проксирует запросы на сервер ShareIt через общий неблокирующий HTTP-клиент.
+ * Тело ответа сервера передаётся вызывающему как есть, без разбора JSON.
+ * Каждый запрос к серверу — дочерний спан запроса к gateway, контекст трассировки передаётся в заголовке traceparent.
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final Executor STREAM_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final long MAX_VALIDATOR_BYTES = 16L * 1024 * 1024;
+    private static final String HAS_MORE_HEADER = "X-Has-More";
+    private static final String OBSERVATION_NAME = "shareit.server.client.requests";
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private final CloseableHttpAsyncClient httpClient;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
+    private final CacheRegion region;
+    private final ObservationRegistry observationRegistry;
+    private final ValidatorCache validators = new ValidatorCache(MAX_VALIDATOR_BYTES);
+    private final ConcurrentMap<InFlightKey, CompletableFuture<SimpleHttpResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public BaseClient(CloseableHttpAsyncClient httpClient, UriBuilderFactory uriBuilderFactory, ObjectMapper objectMapper,
+                      ResponseCache responseCache, CacheRegion region, ObservationRegistry observationRegistry) {
+        this.httpClient = httpClient;
+        this.uriBuilderFactory = uriBuilderFactory;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.region = region;
+        this.observationRegistry = observationRegistry;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET, ответ на который берётся из кэша gateway, пока не истекло время жизни эндпоинта
+     * и не было изменяющих запросов к связанным данным.
+     */
+    protected CompletableFuture<ResponseEntity<byte[]>> getCached(String endpoint, String path, long userId,
+                                                                  @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        ResponseCache.Key key = responseCache.key(region, endpoint, uri, userId);
+        if (key == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        }
+        ResponseEntity<byte[]> cached = responseCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)
+                .thenApply(response -> {
+                    responseCache.put(key, response);
+                    return response;
+                });
+    }
+
+    /**
+     * GET с учётом ETag. Сервер получает If-None-Match с последним известным gateway ETag,
+     * и на ответ 304 тело берётся из памяти. Клиенту с актуальным If-None-Match отдаётся 304 без тела.
+     */
+    protected CompletableFuture<ResponseEntity<byte[]>> getConditional(String path, long userId,
+                                                                       @Nullable Map<String, Object> parameters,
+                                                                       @Nullable String ifNoneMatch) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        ValidatorCache.Entry cached = validators.get(uri);
+
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(uri)
+                .setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        if (cached != null) {
+            requestBuilder.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        }
+
+        return execute(requestBuilder.build()).thenApply(response -> {
+            ValidatorCache.Entry current;
+            if (response.getCode() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                current = cached;
+            } else if (response.getCode() == HttpStatus.OK.value() && response.getFirstHeader(HttpHeaders.ETAG) != null) {
+                Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+                current = new ValidatorCache.Entry(response.getFirstHeader(HttpHeaders.ETAG).getValue(),
+                        contentType != null ? contentType.getValue() : null, response.getBodyBytes());
+                validators.put(uri, current);
+            } else {
+                validators.remove(uri);
+                return prepareGatewayResponse(response);
+            }
+
+            if (matches(ifNoneMatch, current.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.etag()).build();
+            }
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok().eTag(current.etag());
+            if (current.contentType() != null) {
+                responseBuilder.header(HttpHeaders.CONTENT_TYPE, current.contentType());
+            }
+            return responseBuilder.body(current.body());
+        });
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Передаёт тело запроса на сервер и ответ сервера клиенту потоком, не накапливая их в памяти.
+     * Блокирует вызывающий поток до конца обмена.
+     */
+    protected void stream(HttpMethod method, String path, Long userId, String contentType, InputStream body,
+                          HttpServletResponse response) throws IOException {
+        URI uri = uriBuilderFactory.expand(path);
+        AsyncRequestBuilder requestBuilder = AsyncRequestBuilder.create(method.name())
+                .setUri(uri)
+                .setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        Observation observation = startObservation(method.name(), uri.getRawPath(), requestBuilder,
+                AsyncRequestBuilder::setHeader);
+        AsyncRequestProducer requestProducer = requestBuilder
+                .setEntity(new AbstractClassicEntityProducer(STREAM_BUFFER_SIZE, ContentType.parse(contentType),
+                        STREAM_EXECUTOR) {
+                    @Override
+                    protected void produceData(ContentType contentType, OutputStream outputStream) throws IOException {
+                        body.transferTo(outputStream);
+                    }
+                })
+                .build();
+
+        BasicResponseConsumer<Void> responseConsumer = new BasicResponseConsumer<>(
+                new AbstractClassicEntityConsumer<Void>(STREAM_BUFFER_SIZE, STREAM_EXECUTOR) {
+                    @Override
+                    protected Void consumeData(ContentType contentType, InputStream inputStream) throws IOException {
+                        OutputStream outputStream = response.getOutputStream();
+                        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                        int read;
+                        while ((read = inputStream.read(buffer)) != -1) {
+                            outputStream.write(buffer, 0, read);
+                            outputStream.flush();
+                        }
+                        return null;
+                    }
+                }) {
+            @Override
+            public void consumeResponse(HttpResponse serverResponse, EntityDetails entityDetails, HttpContext context,
+                                        FutureCallback<Message<HttpResponse, Void>> resultCallback)
+                    throws HttpException, IOException {
+                response.setStatus(serverResponse.getCode());
+                if (entityDetails != null && entityDetails.getContentType() != null) {
+                    response.setContentType(entityDetails.getContentType());
+                }
+                super.consumeResponse(serverResponse, entityDetails, context, resultCallback);
+            }
+        };
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            httpClient.execute(requestProducer, responseConsumer, null).get();
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.getStatus()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            observation.lowCardinalityKeyValue("status", "IO_ERROR").error(e);
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            observation.lowCardinalityKeyValue("status", "IO_ERROR").error(e.getCause());
+            throw new IOException(e.getCause());
+        } finally {
+            observation.stop();
+            if (method != HttpMethod.GET) {
+                responseCache.invalidate(region);
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+    private <T> CompletableFuture<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+
+        SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.create(method.name())
+                .setUri(uri)
+                .setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            requestBuilder.setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        if (body != null) {
+            try {
+                requestBuilder.setBody(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON);
+            } catch (JsonProcessingException e) {
+                return CompletableFuture.failedFuture(e);
+            }
         }
-        return headers;
-    }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
+        CompletableFuture<ResponseEntity<byte[]>> response = execute(requestBuilder.build())
+                .thenApply(BaseClient::prepareGatewayResponse);
+        if (method == HttpMethod.GET) {
             return response;
         }
+        // сервер мог применить изменение, даже если ответ до gateway не дошёл
+        return response.whenComplete((result, error) -> responseCache.invalidate(region));
+    }
+
+    /**
+     * Одинаковые GET-запросы (тот же URI, пользователь и If-None-Match), пришедшие, пока первый из них
+     * ещё выполняется, не отправляются на сервер повторно, а получают его ответ.
+     * В ключ входит поколение группы кэша, поэтому GET после изменяющего запроса не присоединяется
+     * к запросу, начатому до изменения, и не получает (и не кэширует) прежние данные.
+     */
+    private CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return send(request);
+        }
+        InFlightKey key = new InFlightKey(request.getRequestUri(), headerValue(request, "X-Sharer-User-Id"),
+                headerValue(request, HttpHeaders.IF_NONE_MATCH), responseCache.generation(region));
+        CompletableFuture<SimpleHttpResponse> shared = new CompletableFuture<>();
+        CompletableFuture<SimpleHttpResponse> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            return existing;
+        }
+        send(request).whenComplete((response, error) -> {
+            inFlight.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(response);
+            }
+        });
+        return shared;
+    }
+
+    private CompletableFuture<SimpleHttpResponse> send(SimpleHttpRequest request) {
+        Observation observation = startObservation(request.getMethod(), request.getRequestUri(), request,
+                SimpleHttpRequest::setHeader);
+        CompletableFuture<SimpleHttpResponse> shareitServerResponse = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                observation.lowCardinalityKeyValue("status", String.valueOf(response.getCode())).stop();
+                shareitServerResponse.complete(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                observation.lowCardinalityKeyValue("status", "IO_ERROR").error(e).stop();
+                shareitServerResponse.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                observation.lowCardinalityKeyValue("status", "CANCELLED").stop();
+                shareitServerResponse.cancel(false);
+            }
+        });
+        return shareitServerResponse;
+    }
+
+    /**
+     * Начинает наблюдение за запросом к серверу в контексте текущего запроса к gateway.
+     * При старте обработчик трассировки записывает заголовок traceparent в запрос.
+     */
+    private <C> Observation startObservation(String method, String uri, C request, Propagator.Setter<C> setter) {
+        SenderContext<C> context = new SenderContext<>(setter, Kind.CLIENT);
+        context.setCarrier(request);
+        context.setRemoteServiceName("shareit-server");
+        return Observation.createNotStarted(OBSERVATION_NAME, () -> context, observationRegistry)
+                .contextualName(method.toLowerCase() + " " + region.name().toLowerCase())
+                .lowCardinalityKeyValue("method", method)
+                .lowCardinalityKeyValue("region", region.name().toLowerCase())
+                .lowCardinalityKeyValue("status", "UNKNOWN")
+                .highCardinalityKeyValue("uri", uri)
+                .start();
+    }
+
+    private static String headerValue(SimpleHttpRequest request, String name) {
+        Header header = request.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    private static boolean matches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String strongEtag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(strongEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<byte[]> prepareGatewayResponse(SimpleHttpResponse response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getCode());
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            responseBuilder.header(HttpHeaders.CONTENT_TYPE, contentType.getValue());
+        }
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        if (etag != null) {
+            responseBuilder.header(HttpHeaders.ETAG, etag.getValue());
+        }
+        Header hasMore = response.getFirstHeader(HAS_MORE_HEADER);
+        if (hasMore != null) {
+            responseBuilder.header(HAS_MORE_HEADER, hasMore.getValue());
+        }
+
+        byte[] body = response.getBodyBytes();
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
+
+    private record InFlightKey(String requestUri, String userId, String ifNoneMatch, long generation) {
+    }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Группы ответов сервера в кэше gateway. Изменение в одной группе может сделать устаревшими ответы других:
+ * в бронированиях показываются названия вещей, в вещах — бронирования и отзывы, в запросах — вещи-ответы,
+ * а имена пользователей встречаются везде.
+ */
+public enum CacheRegion {
+    USERS,
+    ITEMS,
+    BOOKINGS,
+    REQUESTS;
+
+    Set<CacheRegion> invalidatedRegions() {
+        return switch (this) {
+            case USERS -> EnumSet.allOf(CacheRegion.class);
+            case ITEMS -> EnumSet.of(ITEMS, BOOKINGS, REQUESTS);
+            case BOOKINGS -> EnumSet.of(BOOKINGS, ITEMS);
+            case REQUESTS -> EnumSet.of(REQUESTS);
+        };
+    }
+}
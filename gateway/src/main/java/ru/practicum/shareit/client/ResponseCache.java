@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш успешных ответов сервера на GET-запросы, общий для всех клиентов gateway.
+ * Ответы хранятся отдельно для каждого пользователя, время жизни задаётся для эндпоинта,
+ * общий объём тел ответов ограничен.
+ * <p>
+ * Изменяющий запрос увеличивает поколение затронутых групп: ключ содержит поколение, поэтому прежние
+ * ответы становятся недоступны сразу и вытесняются по истечении времени жизни. Ответ на GET, начатый
+ * до изменения, сохраняется со старым поколением и тоже не будет прочитан.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Map<String, Duration> ttl;
+    private final Map<CacheRegion, AtomicLong> generations = new EnumMap<>(CacheRegion.class);
+    private final Cache<Key, Entry> cache;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.ttl = Map.copyOf(properties.getTtl());
+        for (CacheRegion region : CacheRegion.values()) {
+            generations.put(region, new AtomicLong());
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    /**
+     * Ключ ответа для текущего поколения группы или null, если эндпоинт не кэшируется.
+     */
+    Key key(CacheRegion region, String endpoint, URI uri, Long userId) {
+        if (!ttl.containsKey(endpoint)) {
+            return null;
+        }
+        return new Key(region, generation(region), endpoint, uri, userId);
+    }
+
+    /**
+     * Текущее поколение группы: увеличивается каждым изменяющим запросом, затрагивающим её.
+     */
+    long generation(CacheRegion region) {
+        return generations.get(region).get();
+    }
+
+    ResponseEntity<byte[]> get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.response() : null;
+    }
+
+    void put(Key key, ResponseEntity<byte[]> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        byte[] body = response.getBody();
+        int weight = ENTRY_OVERHEAD_BYTES + key.uri().toString().length() + (body != null ? body.length : 0);
+        cache.put(key, new Entry(response, ttl.get(key.endpoint()), weight));
+    }
+
+    void invalidate(CacheRegion region) {
+        region.invalidatedRegions().forEach(affected -> generations.get(affected).incrementAndGet());
+    }
+
+    record Key(CacheRegion region, long generation, String endpoint, URI uri, Long userId) {
+    }
+
+    private record Entry(ResponseEntity<byte[]> response, Duration ttl, int weight) {
+    }
+}
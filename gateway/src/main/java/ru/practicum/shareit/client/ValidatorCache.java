@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.net.URI;
+
+/**
+ * Последние ответы сервера с ETag, по одному на URI. Позволяет отправлять серверу условный запрос
+ * и отдавать клиенту тело из памяти, если сервер ответил 304.
+ * Общий объём записей ограничен в байтах, как в ResponseCache; вытесняются редко запрашиваемые.
+ */
+class ValidatorCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<URI, Entry> entries;
+
+    ValidatorCache(long maxBytes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((URI uri, Entry entry) -> weight(uri, entry))
+                .build();
+    }
+
+    Entry get(URI uri) {
+        return entries.getIfPresent(uri);
+    }
+
+    void put(URI uri, Entry entry) {
+        entries.put(uri, entry);
+    }
+
+    void remove(URI uri) {
+        entries.invalidate(uri);
+    }
+
+    private static int weight(URI uri, Entry entry) {
+        return ENTRY_OVERHEAD_BYTES + uri.toString().length() + entry.etag().length()
+                + (entry.body() != null ? entry.body().length : 0);
+    }
+
+    record Entry(String etag, String contentType, byte[] body) {
+    }
+}
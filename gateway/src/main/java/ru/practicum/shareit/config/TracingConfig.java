@@ -0,0 +1,20 @@
+package ru.practicum.shareit.config;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Экспорт спанов. В OTLP-коллектор спаны уходят, если задан management.otlp.tracing.endpoint,
+ * для локального запуска их можно писать в журнал: shareit.tracing.log-exporter.enabled=true.
+ */
+@Configuration
+public class TracingConfig {
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.log-exporter.enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
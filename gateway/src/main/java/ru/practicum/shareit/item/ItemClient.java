@@ -1,57 +1,74 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRegion;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient httpClient,
+                      ObjectMapper objectMapper, ResponseCache responseCache,
+                      ObservationRegistry observationRegistry) {
+        super(httpClient, new DefaultUriBuilderFactory(serverUrl + API_PREFIX), objectMapper, responseCache,
+                CacheRegion.ITEMS, observationRegistry);
     }
 
-    public ResponseEntity<Object> getAllItems(Long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItems(Long userId) {
+        return getCached("items", "", userId, null);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long id) {
-        return get("/" + id, userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getItemById(Long userId, Long id, String ifNoneMatch) {
+        return getConditional("/{id}", userId, Map.of("id", id), ifNoneMatch);
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAvailability(Long userId, Long id, LocalDateTime from,
+                                                                     LocalDateTime to) {
+        return get("/{id}/availability?from={from}&to={to}", userId, Map.of("id", id, "from", from, "to", to));
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> createItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
+    public void importItems(Long userId, String contentType, InputStream body, HttpServletResponse response)
+            throws IOException {
+        stream(HttpMethod.POST, "/bulk", userId, contentType, body, response);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> deleteItem(Long userId, Long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteItem(Long userId, Long id) {
         return delete("/" + id, userId);
     }
 
-    public ResponseEntity<Object> searchItems(Long userId, String text) {
+    public CompletableFuture<ResponseEntity<byte[]>> searchItems(Long userId, String text) {
         return get("/search?text={text}", userId, Map.of("text", text));
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/{itemId}/comment", userId, Map.of("itemId", itemId), commentDto);
     }
 }
@@ -1,44 +1,57 @@
 package ru.practicum.shareit.request;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRegion;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient httpClient,
+                             ObjectMapper objectMapper, ResponseCache responseCache,
+                             ObservationRegistry observationRegistry) {
+        super(httpClient, new DefaultUriBuilderFactory(serverUrl + API_PREFIX), objectMapper, responseCache,
+                CacheRegion.REQUESTS, observationRegistry);
     }
 
-    public ResponseEntity<Object> createItemRequest(Long userId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createItemRequest(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequests(Long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getRequests(Long userId) {
+        return getCached("requests", "", userId, null);
     }
 
-    public ResponseEntity<Object> getRequestsAll(Long userId) {
-        return get("/all", userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getRequestsAll(Long userId, LocalDateTime afterCreated, Long afterId,
+                                                                    Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        String query = "/all?size={size}";
+        if (afterCreated != null) {
+            parameters.put("afterCreated", afterCreated);
+            parameters.put("afterId", afterId);
+            query += "&afterCreated={afterCreated}&afterId={afterId}";
+        }
+        return getCached("requests-all", query, userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/{requestId}", userId, Map.of("requestId", requestId));
+    public CompletableFuture<ResponseEntity<byte[]>> getRequestById(Long userId, Long requestId, String ifNoneMatch) {
+        return getConditional("/{requestId}", userId, Map.of("requestId", requestId), ifNoneMatch);
     }
 }
@@ -3,36 +3,53 @@ package ru.practicum.shareit.request;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/requests")
 public class ItemRequestController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                     @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemRequestClient.getRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequestsAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestClient.getRequestsAll(userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getRequestsAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                  @RequestParam(required = false) Long afterId,
+                                                  @RequestParam(defaultValue = "20") Integer size) {
+        if ((afterCreated == null) != (afterId == null)) {
+            throw new IllegalArgumentException("Для продолжения выборки необходимо указать afterCreated и afterId");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return itemRequestClient.getRequestsAll(userId, afterCreated, afterId, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @PathVariable Long requestId) {
-        return itemRequestClient.getRequestById(userId,requestId);
+    public CompletableFuture<ResponseEntity<byte[]>> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @PathVariable Long requestId,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getRequestById(userId, requestId, ifNoneMatch);
     }
 }
@@ -1,46 +1,49 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CacheRegion;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient httpClient,
+                      ObjectMapper objectMapper, ResponseCache responseCache,
+                      ObservationRegistry observationRegistry) {
+        super(httpClient, new DefaultUriBuilderFactory(serverUrl + API_PREFIX), objectMapper, responseCache,
+                CacheRegion.USERS, observationRegistry);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(Long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserById(Long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> createUser(UserDto user) {
+    public CompletableFuture<ResponseEntity<byte[]>> createUser(UserDto user) {
         return post("", user);
     }
 
-    public ResponseEntity<Object> updateUser(Long id, UserDto user) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(Long id, UserDto user) {
         return patch("/" + id, user);
     }
 
-    public ResponseEntity<Object> deleteUser(Long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteUser(Long id) {
         return delete("/" + id);
     }
 }
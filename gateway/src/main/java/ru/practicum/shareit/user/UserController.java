@@ -7,6 +7,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,27 +17,27 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         return userClient.getAllUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserById(@PathVariable Long id) {
         return userClient.getUserById(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto user) {
+    public CompletableFuture<ResponseEntity<byte[]>> createUser(@Valid @RequestBody UserDto user) {
         return userClient.createUser(user);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long id, @RequestBody UserDto user) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(@PathVariable Long id, @RequestBody UserDto user) {
         return userClient.updateUser(id, user);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteUser(@PathVariable Long id) {
         return userClient.deleteUser(id);
     }
 }
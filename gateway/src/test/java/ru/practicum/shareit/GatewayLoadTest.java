@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочный тест gateway: сервер ShareIt заменён заглушкой, которая держит каждый запрос,
+ * пока до неё не дойдут все клиенты. Ограниченный 200 рабочими потоками Tomcat gateway
+ * не смог бы передать серверу больше 200 запросов одновременно. Запросы к разным пользователям,
+ * чтобы gateway не объединял их в один.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.client.max-connections=1000",
+        "shareit-server.client.max-connections-per-route=1000"
+})
+class GatewayLoadTest {
+    private static final int CLIENTS = 400;
+    private static final byte[] USER = "{\"id\":1,\"name\":\"Alex\",\"email\":\"alex@mail.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static volatile CountDownLatch allArrived = new CountDownLatch(0);
+
+    private static final HttpServer server = startServer();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void requests_whenMoreClientsThanTomcatWorkers_thenAllReachServerAtOnce() {
+        run(10);
+        maxInFlight.set(0);
+
+        run(CLIENTS);
+
+        assertEquals(CLIENTS, maxInFlight.get());
+    }
+
+    private void run(int clients) {
+        allArrived = new CountDownLatch(clients);
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, clients)
+                .mapToObj(i -> client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + i))
+                        .timeout(Duration.ofSeconds(60))
+                        .build(), HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        responses.forEach(response -> {
+            assertEquals(200, response.join().statusCode());
+            assertEquals(new String(USER, StandardCharsets.UTF_8), response.join().body());
+        });
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+            httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            httpServer.createContext("/", exchange -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                allArrived.countDown();
+                try {
+                    allArrived.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, USER.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(USER);
+                }
+            });
+            httpServer.start();
+            return httpServer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
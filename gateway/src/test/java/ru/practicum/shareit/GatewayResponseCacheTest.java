@@ -0,0 +1,161 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Кэш ответов gateway: сервер ShareIt заменён заглушкой, которая считает дошедшие до неё запросы.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GatewayResponseCacheTest {
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private static final Map<String, AtomicInteger> serverCalls = new ConcurrentHashMap<>();
+    private static final HttpServer server = startServer();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // изменение пользователя сбрасывает все группы кэша
+        send("DELETE", "/users/999", 1);
+        serverCalls.clear();
+    }
+
+    @Test
+    void get_whenRepeatedBySameUser_thenServedFromCache() {
+        send("GET", "/items", 1);
+        send("GET", "/items", 1);
+        send("GET", "/requests/all", 1);
+        send("GET", "/requests/all", 1);
+
+        assertEquals(1, calls("GET /items 1"));
+        assertEquals(1, calls("GET /requests/all 1"));
+    }
+
+    @Test
+    void get_whenDifferentUsers_thenCachedSeparately() {
+        send("GET", "/items", 1);
+        send("GET", "/items", 2);
+
+        assertEquals(1, calls("GET /items 1"));
+        assertEquals(1, calls("GET /items 2"));
+    }
+
+    @Test
+    void get_whenItemDeleted_thenItemsAndRequestsRefreshed() {
+        send("GET", "/items", 2);
+        send("GET", "/requests/all", 2);
+
+        send("DELETE", "/items/5", 1);
+        send("GET", "/items", 2);
+        send("GET", "/requests/all", 2);
+
+        assertEquals(2, calls("GET /items 2"));
+        assertEquals(2, calls("GET /requests/all 2"));
+    }
+
+    @Test
+    void get_whenBookingApproved_thenBookingsAndItemsRefreshedButRequestsCached() {
+        send("GET", "/bookings?state=ALL", 1);
+        send("GET", "/items", 1);
+        send("GET", "/requests", 1);
+
+        send("PATCH", "/bookings/3?approved=true", 1);
+        send("GET", "/bookings?state=ALL", 1);
+        send("GET", "/items", 1);
+        send("GET", "/requests", 1);
+
+        assertEquals(2, calls("GET /bookings 1"));
+        assertEquals(2, calls("GET /items 1"));
+        assertEquals(1, calls("GET /requests 1"));
+    }
+
+    @Test
+    void metrics_whenCacheUsed_thenHitsExported() {
+        send("GET", "/items", 3);
+        send("GET", "/items", 3);
+
+        HttpResponse<String> response = send("GET",
+                "/actuator/metrics/cache.gets?tag=cache:gateway.responses&tag=result:hit", 3);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"COUNT\""), response.body());
+    }
+
+    private HttpResponse<String> send(String method, String path, long userId) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("X-Sharer-User-Id", String.valueOf(userId))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), () -> method + " " + path + ": " + response.body());
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int calls(String key) {
+        AtomicInteger count = serverCalls.get(key);
+        return count != null ? count.get() : 0;
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            httpServer.createContext("/", exchange -> {
+                String key = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + " "
+                        + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id");
+                serverCalls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, EMPTY_LIST.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(EMPTY_LIST);
+                }
+            });
+            httpServer.start();
+            return httpServer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Объединение одинаковых одновременных GET-запросов: заглушка сервера ShareIt держит ответы на GET,
+ * пока все клиенты не дойдут до gateway, и считает дошедшие до неё GET-запросы.
+ * Изменяющий запрос увеличивает версию вещи, GET возвращает версию на момент своего прихода.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GatewaySingleFlightTest {
+    private static final int CLIENTS = 100;
+
+    private static final AtomicInteger serverCalls = new AtomicInteger();
+    private static final AtomicInteger version = new AtomicInteger();
+    private static volatile CountDownLatch firstArrived = new CountDownLatch(1);
+    private static volatile CountDownLatch release = new CountDownLatch(1);
+
+    private static final HttpServer server = startServer();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        serverCalls.set(0);
+        version.set(0);
+        firstArrived = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    void getItemById_whenConcurrentIdenticalRequests_thenOneServerCall() throws InterruptedException {
+        List<CompletableFuture<HttpResponse<String>>> responses = sendAll(i -> 1L);
+
+        assertEquals(1, serverCalls.get());
+        responses.forEach(response -> {
+            assertEquals(200, response.join().statusCode());
+            assertEquals(item(0), response.join().body());
+        });
+    }
+
+    @Test
+    void getItemById_whenConcurrentRequestsOfDifferentUsers_thenOneServerCallPerUser() throws InterruptedException {
+        List<CompletableFuture<HttpResponse<String>>> responses = sendAll(i -> (long) (i % 2 + 1));
+
+        assertEquals(2, serverCalls.get());
+        responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+    }
+
+    @Test
+    void getItemById_whenPreviousRequestFinished_thenNewServerCall() throws InterruptedException {
+        release.countDown();
+
+        sendAll(i -> 1L).forEach(CompletableFuture::join);
+        sendAll(i -> 1L).forEach(CompletableFuture::join);
+
+        assertTrue(serverCalls.get() >= 2);
+    }
+
+    @Test
+    void getAllItems_whenItemUpdatedWhileEarlierGetInFlight_thenNewGetSeesUpdate() throws Exception {
+        // Given - GET, начатый до изменения, ещё ждёт ответа сервера
+        CompletableFuture<HttpResponse<String>> before = sendGet("/items", 1L);
+        assertTrue(firstArrived.await(10, TimeUnit.SECONDS));
+        HttpResponse<String> patch = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/1"))
+                .header("X-Sharer-User-Id", "1")
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":\"Перфоратор\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, patch.statusCode());
+
+        // When
+        CompletableFuture<HttpResponse<String>> after = sendGet("/items", 1L);
+        Thread.sleep(1000);
+        release.countDown();
+
+        // Then
+        assertEquals(item(0), before.join().body());
+        assertEquals(item(1), after.join().body());
+        assertEquals(item(1), sendGet("/items", 1L).join().body());
+        assertEquals(2, serverCalls.get());
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendGet(String path, long userId) {
+        return client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(Duration.ofSeconds(30))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private List<CompletableFuture<HttpResponse<String>>> sendAll(IntFunction<Long> userId)
+            throws InterruptedException {
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, CLIENTS)
+                .mapToObj(i -> sendGet("/items/1", userId.apply(i)))
+                .toList();
+        assertTrue(firstArrived.await(10, TimeUnit.SECONDS));
+        // остальные запросы успевают дойти до gateway, пока первый ждёт ответа сервера
+        Thread.sleep(1000);
+        release.countDown();
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses;
+    }
+
+    private static String item(int version) {
+        return "{\"id\":1,\"name\":\"Дрель\",\"available\":true,\"version\":" + version + "}";
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            httpServer.createContext("/", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                int current;
+                if (exchange.getRequestMethod().equals("GET")) {
+                    current = version.get();
+                    serverCalls.incrementAndGet();
+                    firstArrived.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    current = version.incrementAndGet();
+                }
+                byte[] item = item(current).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, item.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(item);
+                }
+            });
+            httpServer.start();
+            return httpServer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
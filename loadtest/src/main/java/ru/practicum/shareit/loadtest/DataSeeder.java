@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntConsumer;
+
+/**
+ * Заполнение базы через gateway: владельцы вещей и популярность вещей распределены по Ципфу,
+ * 30 % бронирований остаются неподтверждёнными и подтверждаются уже под нагрузкой.
+ */
+final class DataSeeder {
+    private static final double APPROVED_SHARE = 0.7;
+
+    private final ShareItApi api;
+    private final Options options;
+
+    DataSeeder(ShareItApi api, Options options) {
+        this.api = api;
+        this.options = options;
+    }
+
+    Dataset seed() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+
+        long[] userIds = new long[options.users()];
+        parallel(userIds.length, i -> userIds[i] = api.id(api.createUser("Пользователь " + i, "user" + i + "@loadtest.ru")));
+
+        ZipfSampler owners = new ZipfSampler(userIds.length, options.skew());
+        ZipfSampler words = new ZipfSampler(Dataset.WORDS.length, options.skew());
+        long[] itemOwners = new long[options.items()];
+        String[] names = new String[options.items()];
+        for (int i = 0; i < itemOwners.length; i++) {
+            itemOwners[i] = userIds[owners.next(random)];
+            names[i] = Dataset.WORDS[words.next(random)] + " " + (i + 1);
+        }
+        long[] itemIds = new long[options.items()];
+        parallel(itemIds.length, i -> itemIds[i] = api.id(api.createItem(itemOwners[i], names[i],
+                "Сдаётся " + names[i] + ", " + Dataset.WORDS[i % Dataset.WORDS.length] + " в комплекте")));
+
+        Dataset dataset = new Dataset(userIds, itemIds, itemOwners, options.skew());
+        int[] bookedItems = new int[options.bookings()];
+        long[] bookers = new long[options.bookings()];
+        boolean[] approved = new boolean[options.bookings()];
+        for (int i = 0; i < bookedItems.length; i++) {
+            bookedItems[i] = dataset.popularItem(random);
+            bookers[i] = dataset.bookerFor(bookedItems[i], random);
+            approved[i] = random.nextDouble() < APPROVED_SHARE;
+        }
+        parallel(bookedItems.length, i -> {
+            int item = bookedItems[i];
+            Dataset.Slot slot = dataset.nextSlot(item);
+            long bookingId = api.id(api.createBooking(bookers[i], dataset.itemId(item), slot.start(), slot.end()));
+            if (approved[i]) {
+                api.id(api.approveBooking(dataset.ownerOf(item), bookingId));
+            } else {
+                dataset.addPending(bookingId, dataset.ownerOf(item));
+            }
+        });
+        return dataset;
+    }
+
+    private void parallel(int count, IntConsumer task) throws InterruptedException {
+        Semaphore permits = new Semaphore(options.concurrency());
+        List<Future<?>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        task.accept(index);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Не удалось подготовить данные", e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Созданные при подготовке пользователи и вещи и выбор участников запросов нагрузки.
+ * Индекс вещи в массивах совпадает с её рангом популярности, пользователя — с рангом активности владельца.
+ */
+final class Dataset {
+    static final String[] WORDS = {
+            "дрель", "перфоратор", "шуруповёрт", "лестница", "палатка", "велосипед", "самокат", "байдарка",
+            "спальник", "мангал", "пила", "лобзик", "болгарка", "сварка", "генератор", "компрессор",
+            "пылесос", "мойка", "газонокосилка", "триммер", "культиватор", "тачка", "стремянка", "домкрат",
+            "проектор", "колонка", "фотоаппарат", "объектив", "штатив", "квадрокоптер", "коляска", "автокресло",
+            "лыжи", "сноуборд", "коньки", "гантели", "тренажёр", "рюкзак", "котелок", "гитара"
+    };
+
+    private final long[] userIds;
+    private final long[] itemIds;
+    private final long[] itemOwners;
+    private final ZipfSampler itemPopularity;
+    private final ZipfSampler wordPopularity;
+    private final AtomicIntegerArray bookedSlots;
+    private final LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private final Queue<PendingBooking> pendingBookings = new ConcurrentLinkedQueue<>();
+
+    record PendingBooking(long bookingId, long ownerId) {
+    }
+
+    record Slot(LocalDateTime start, LocalDateTime end) {
+    }
+
+    Dataset(long[] userIds, long[] itemIds, long[] itemOwners, double skew) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.itemOwners = itemOwners;
+        this.itemPopularity = new ZipfSampler(itemIds.length, skew);
+        this.wordPopularity = new ZipfSampler(WORDS.length, skew);
+        this.bookedSlots = new AtomicIntegerArray(itemIds.length);
+    }
+
+    int users() {
+        return userIds.length;
+    }
+
+    int items() {
+        return itemIds.length;
+    }
+
+    long userId(int index) {
+        return userIds[index];
+    }
+
+    long itemId(int index) {
+        return itemIds[index];
+    }
+
+    long ownerOf(int item) {
+        return itemOwners[item];
+    }
+
+    int popularItem(RandomGenerator random) {
+        return itemPopularity.next(random);
+    }
+
+    /**
+     * Владелец популярной вещи: чаще всего свои списки смотрят те, у кого больше всего бронируют.
+     */
+    long activeOwner(RandomGenerator random) {
+        return ownerOf(popularItem(random));
+    }
+
+    long randomUser(RandomGenerator random) {
+        return userIds[random.nextInt(userIds.length)];
+    }
+
+    long bookerFor(int item, RandomGenerator random) {
+        long booker;
+        do {
+            booker = randomUser(random);
+        } while (booker == ownerOf(item));
+        return booker;
+    }
+
+    String searchTerm(RandomGenerator random) {
+        return WORDS[wordPopularity.next(random)];
+    }
+
+    /**
+     * Следующий свободный день вещи, чтобы бронирования одной вещи не пересекались.
+     */
+    Slot nextSlot(int item) {
+        LocalDateTime start = firstSlot.plusDays(bookedSlots.getAndIncrement(item));
+        return new Slot(start, start.plusHours(20));
+    }
+
+    void addPending(long bookingId, long ownerId) {
+        pendingBookings.add(new PendingBooking(bookingId, ownerId));
+    }
+
+    PendingBooking pollPending() {
+        return pendingBookings.poll();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Приложение Spring Boot, запущенное в этой же JVM из распакованного исполняемого jar.
+ * Каждое приложение получает свой загрузчик классов с родителем platform,
+ * поэтому одноимённые классы gateway и сервера не пересекаются.
+ */
+final class EmbeddedApp implements Closeable {
+    private final String name;
+    private final URLClassLoader classLoader;
+    private final Object context;
+
+    private EmbeddedApp(String name, URLClassLoader classLoader, Object context) {
+        this.name = name;
+        this.classLoader = classLoader;
+        this.context = context;
+    }
+
+    static EmbeddedApp start(String name, Path directory, String mainClass, List<String> args) throws Exception {
+        URLClassLoader classLoader = new URLClassLoader(name, classPath(directory), ClassLoader.getPlatformClassLoader());
+        AtomicReference<Object> context = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // SpringApplication берёт загрузчик из контекста потока, поэтому запуск идёт в отдельном потоке
+        Thread main = new Thread(() -> {
+            try {
+                // Tomcat регистрирует фабрику обработчиков URL на всю JVM, а второй раз это сделать нельзя
+                classLoader.loadClass("org.apache.catalina.webresources.TomcatURLStreamHandlerFactory")
+                        .getMethod("disable")
+                        .invoke(null);
+                Class<?> application = classLoader.loadClass("org.springframework.boot.SpringApplication");
+                context.set(application.getMethod("run", Class.class, String[].class)
+                        .invoke(null, classLoader.loadClass(mainClass), args.toArray(String[]::new)));
+            } catch (InvocationTargetException e) {
+                failure.set(e.getCause());
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        }, name + "-main");
+        main.setContextClassLoader(classLoader);
+        main.start();
+        main.join();
+
+        if (failure.get() != null) {
+            classLoader.close();
+            throw new IllegalStateException("Не удалось запустить " + name, failure.get());
+        }
+        return new EmbeddedApp(name, classLoader, context.get());
+    }
+
+    int port() throws ReflectiveOperationException {
+        Object environment = classLoader.loadClass("org.springframework.context.ConfigurableApplicationContext")
+                .getMethod("getEnvironment")
+                .invoke(context);
+        Object port = classLoader.loadClass("org.springframework.core.env.PropertyResolver")
+                .getMethod("getProperty", String.class)
+                .invoke(environment, "local.server.port");
+        return Integer.parseInt((String) port);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            ((Closeable) context).close();
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Раскладка исполняемого jar Spring Boot: классы приложения и библиотеки.
+     */
+    private static URL[] classPath(Path directory) throws IOException {
+        Path classes = directory.resolve("BOOT-INF/classes");
+        Path lib = directory.resolve("BOOT-INF/lib");
+        if (!Files.isDirectory(classes) || !Files.isDirectory(lib)) {
+            throw new IllegalArgumentException("Не найден распакованный jar приложения: " + directory);
+        }
+
+        List<URL> urls = new ArrayList<>();
+        urls.add(url(classes));
+        try (Stream<Path> jars = Files.list(lib)) {
+            for (Path jar : jars.sorted().toList()) {
+                urls.add(url(jar));
+            }
+        }
+        return urls.toArray(URL[]::new);
+    }
+
+    private static URL url(Path path) throws MalformedURLException {
+        return path.toUri().toURL();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Нагрузочный прогон gateway и сервера в одной JVM на H2 в режиме совместимости с PostgreSQL.
+ * Сервер и gateway запускаются из jar, распакованных при сборке в target/apps:
+ * <pre>
+ * mvn -B package -DskipTests
+ * java -jar loadtest/target/loadtest.jar --scenario=mixed --users=500 --items=5000 --bookings=10000
+ * </pre>
+ * Миграции из db/migration/postgresql (pg_trgm, exclusion-ограничение) на H2 не выполняются,
+ * поэтому поиск и проверка пересечений бронирований идут без них.
+ */
+public final class LoadTest {
+    private static final String DATABASE_URL = "jdbc:h2:mem:shareit;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Options.isHelp(args)) {
+            System.out.print(Options.USAGE);
+            return;
+        }
+        Options options = Options.parse(args, defaultApps());
+
+        try (EmbeddedApp server = EmbeddedApp.start("server", options.apps().resolve("server"),
+                "ru.practicum.shareit.ShareItServer", serverArgs());
+             EmbeddedApp gateway = EmbeddedApp.start("gateway", options.apps().resolve("gateway"),
+                     "ru.practicum.shareit.ShareItGateway", gatewayArgs(server.port(), options))) {
+            ShareItApi api = new ShareItApi(gateway.port());
+
+            long started = System.nanoTime();
+            Dataset dataset = new DataSeeder(api, options).seed();
+            System.out.printf("Подготовлено %d пользователей, %d вещей, %d бронирований за %.1f с%n",
+                    options.users(), options.items(), options.bookings(), (System.nanoTime() - started) / 1e9);
+
+            WorkloadRunner runner = new WorkloadRunner(api, dataset, options);
+            Report report = new Report();
+            for (Scenario.Phase phase : options.scenario().phases()) {
+                System.out.printf("Фаза %s: прогрев %d с, замер %d с, клиентов %d%n", phase.name(),
+                        options.warmup().toSeconds(), options.duration().toSeconds(), options.concurrency());
+                report.add(runner.run(phase));
+            }
+
+            report.print(System.out);
+            if (options.out() != null) {
+                report.write(options.out());
+            }
+        }
+    }
+
+    private static List<String> serverArgs() {
+        return List.of(
+                "--server.port=0",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.url=" + DATABASE_URL,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database=h2",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.main.banner-mode=off",
+                // журнал транзакций на уровне TRACE из application.properties искажает замеры
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+    }
+
+    private static List<String> gatewayArgs(int serverPort, Options options) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        if (!options.gatewayCache()) {
+            args.add("--shareit-server.cache.max-bytes=0");
+        }
+        return args;
+    }
+
+    private static Path defaultApps() throws Exception {
+        Path jar = Path.of(LoadTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return jar.getParent().resolve("apps");
+    }
+}
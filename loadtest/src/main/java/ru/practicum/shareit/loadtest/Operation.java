@@ -0,0 +1,88 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Запросы, из которых складываются сценарии нагрузки.
+ */
+enum Operation {
+    SEARCH("GET /items/search") {
+        @Override
+        Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random) {
+            long userId = data.randomUser(random);
+            String text = data.searchTerm(random);
+            return () -> api.searchItems(userId, text);
+        }
+    },
+    ITEM("GET /items/{id}") {
+        @Override
+        Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random) {
+            long userId = data.randomUser(random);
+            long itemId = data.itemId(data.popularItem(random));
+            return () -> api.getItem(userId, itemId);
+        }
+    },
+    OWNER_ITEMS("GET /items") {
+        @Override
+        Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random) {
+            long ownerId = data.activeOwner(random);
+            return () -> api.getOwnerItems(ownerId);
+        }
+    },
+    OWNER_BOOKINGS("GET /bookings/owner") {
+        @Override
+        Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random) {
+            long ownerId = data.activeOwner(random);
+            return () -> api.getOwnerBookings(ownerId);
+        }
+    },
+    CREATE_BOOKING("POST /bookings") {
+        @Override
+        Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random) {
+            int item = data.popularItem(random);
+            long bookerId = data.bookerFor(item, random);
+            Dataset.Slot slot = data.nextSlot(item);
+            return () -> {
+                ShareItApi.Response response = api.createBooking(bookerId, data.itemId(item), slot.start(), slot.end());
+                if (response.isSuccessful()) {
+                    data.addPending(api.id(response), data.ownerOf(item));
+                }
+                return response;
+            };
+        }
+    },
+    /**
+     * Подтверждение ожидающего бронирования. Если ожидающих не осталось, бронирование
+     * сначала создаётся: время создания в задержку подтверждения не входит, а выделенная память в фазе учитывается.
+     */
+    APPROVE_BOOKING("PATCH /bookings/{id}") {
+        @Override
+        Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random) {
+            Dataset.PendingBooking booking;
+            while ((booking = data.pollPending()) == null) {
+                ShareItApi.Response created = CREATE_BOOKING.prepare(api, data, random).get();
+                if (!created.isSuccessful()) {
+                    return () -> created;
+                }
+            }
+            Dataset.PendingBooking pending = booking;
+            return () -> api.approveBooking(pending.ownerId(), pending.bookingId());
+        }
+    };
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Выбирает участников запроса; время замеряется только на выполнении возвращённого запроса.
+     */
+    abstract Supplier<ShareItApi.Response> prepare(ShareItApi api, Dataset data, RandomGenerator random);
+}
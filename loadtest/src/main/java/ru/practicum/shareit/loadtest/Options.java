@@ -0,0 +1,87 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры запуска в виде --имя=значение.
+ */
+record Options(Scenario scenario,
+               int users,
+               int items,
+               int bookings,
+               double skew,
+               long seed,
+               int concurrency,
+               Duration warmup,
+               Duration duration,
+               boolean gatewayCache,
+               Path apps,
+               Path out) {
+
+    static final String USAGE = """
+            java -jar loadtest/target/loadtest.jar [--имя=значение ...]
+              --scenario=mixed      mixed | search | owner | booking | endpoints
+              --users=200           число пользователей
+              --items=2000          число вещей
+              --bookings=4000       число бронирований
+              --skew=1.1            показатель распределения Ципфа для владельцев, вещей и слов поиска
+              --seed=42             зерно генератора данных
+              --concurrency=32      число одновременных клиентов
+              --warmup=10s          прогрев перед каждой фазой
+              --duration=30s        длительность каждой фазы
+              --gateway-cache=true  кэш ответов gateway
+              --apps=<dir>          распакованные приложения, по умолчанию target/apps рядом с jar
+              --out=<file>          записать результаты в JSON
+            """;
+
+    private static final Set<String> NAMES = Set.of("scenario", "users", "items", "bookings", "skew", "seed",
+            "concurrency", "warmup", "duration", "gateway-cache", "apps", "out");
+
+    static Options parse(String[] args, Path defaultApps) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидался параметр вида --имя=значение: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Неизвестный параметр: " + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        Options options = new Options(
+                Scenario.from(values.getOrDefault("scenario", "mixed")),
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("items", "2000")),
+                Integer.parseInt(values.getOrDefault("bookings", "4000")),
+                Double.parseDouble(values.getOrDefault("skew", "1.1")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "30s")),
+                Boolean.parseBoolean(values.getOrDefault("gateway-cache", "true")),
+                values.containsKey("apps") ? Path.of(values.get("apps")) : defaultApps,
+                values.containsKey("out") ? Path.of(values.get("out")) : null);
+        if (options.users < 2 || options.items < 1 || options.bookings < 0 || options.concurrency < 1) {
+            throw new IllegalArgumentException("Нужно не меньше двух пользователей, одной вещи и одного клиента");
+        }
+        return options;
+    }
+
+    static boolean isHelp(String[] args) {
+        return args.length == 1 && (args[0].equals("-h") || args[0].equals("--help"));
+    }
+
+    /**
+     * Длительность в формате 30s, 2m или ISO-8601.
+     */
+    private static Duration duration(String value) {
+        return value.startsWith("P") ? Duration.parse(value) : Duration.parse("PT" + value.toUpperCase());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итоги фаз: задержки p50/p99, пропускная способность и выделение памяти по каждому запросу.
+ */
+final class Report {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final List<WorkloadRunner.PhaseResult> phases = new ArrayList<>();
+
+    void add(WorkloadRunner.PhaseResult phase) {
+        phases.add(phase);
+    }
+
+    void print(PrintStream out) {
+        for (WorkloadRunner.PhaseResult phase : phases) {
+            double seconds = seconds(phase);
+            out.printf("%nФаза %s: %.1f с, %d запросов, %.1f запр/с, выделено %.1f МБ (%.1f КБ на запрос)%n",
+                    phase.name(), seconds, phase.requests(), phase.requests() / seconds,
+                    phase.allocatedBytes() / 1024.0 / 1024.0, bytesPerRequest(phase) / 1024.0);
+            out.printf("%-24s %9s %7s %9s %9s %9s %9s%n",
+                    "запрос", "всего", "ошибок", "запр/с", "p50, мс", "p99, мс", "max, мс");
+            phase.endpoints().forEach((operation, summary) -> out.printf("%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                    operation.endpoint(), summary.count(), summary.errors(), summary.count() / seconds,
+                    summary.p50Nanos() / NANOS_PER_MILLI, summary.p99Nanos() / NANOS_PER_MILLI,
+                    summary.maxNanos() / NANOS_PER_MILLI));
+        }
+    }
+
+    void write(Path file) throws IOException {
+        List<Map<String, Object>> json = new ArrayList<>();
+        for (WorkloadRunner.PhaseResult phase : phases) {
+            double seconds = seconds(phase);
+            List<Map<String, Object>> endpoints = new ArrayList<>();
+            phase.endpoints().forEach((operation, summary) -> {
+                Map<String, Object> endpoint = new LinkedHashMap<>();
+                endpoint.put("endpoint", operation.endpoint());
+                endpoint.put("requests", summary.count());
+                endpoint.put("errors", summary.errors());
+                endpoint.put("throughput", summary.count() / seconds);
+                endpoint.put("p50Ms", summary.p50Nanos() / NANOS_PER_MILLI);
+                endpoint.put("p99Ms", summary.p99Nanos() / NANOS_PER_MILLI);
+                endpoint.put("maxMs", summary.maxNanos() / NANOS_PER_MILLI);
+                endpoints.add(endpoint);
+            });
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("phase", phase.name());
+            result.put("seconds", seconds);
+            result.put("requests", phase.requests());
+            result.put("throughput", phase.requests() / seconds);
+            result.put("allocatedBytes", phase.allocatedBytes());
+            result.put("allocatedBytesPerRequest", bytesPerRequest(phase));
+            result.put("endpoints", endpoints);
+            json.add(result);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    }
+
+    private static double seconds(WorkloadRunner.PhaseResult phase) {
+        return phase.elapsed().toNanos() / 1e9;
+    }
+
+    private static double bytesPerRequest(WorkloadRunner.PhaseResult phase) {
+        return phase.requests() > 0 ? (double) phase.allocatedBytes() / phase.requests() : 0;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сценарии нагрузки. Фазы выполняются по очереди; внутри фазы клиенты выбирают запрос по весам.
+ * Выделение памяти измеряется на всю фазу, поэтому на отдельный запрос его можно отнести
+ * только в фазе из одного запроса, как в сценарии endpoints.
+ */
+enum Scenario {
+    MIXED("mixed", List.of(new Phase("mixed", weights(Map.of(
+            Operation.SEARCH, 30,
+            Operation.ITEM, 20,
+            Operation.OWNER_ITEMS, 15,
+            Operation.OWNER_BOOKINGS, 10,
+            Operation.CREATE_BOOKING, 15,
+            Operation.APPROVE_BOOKING, 10))))),
+    SEARCH("search", List.of(new Phase("search", weights(Map.of(Operation.SEARCH, 1))))),
+    OWNER("owner", List.of(new Phase("owner", weights(Map.of(Operation.OWNER_ITEMS, 1, Operation.OWNER_BOOKINGS, 1))))),
+    BOOKING("booking", List.of(new Phase("booking", weights(Map.of(Operation.CREATE_BOOKING, 1, Operation.APPROVE_BOOKING, 1))))),
+    ENDPOINTS("endpoints", Arrays.stream(Operation.values())
+            .map(operation -> new Phase(operation.endpoint(), weights(Map.of(operation, 1))))
+            .toList());
+
+    private final String name;
+    private final List<Phase> phases;
+
+    Scenario(String name, List<Phase> phases) {
+        this.name = name;
+        this.phases = phases;
+    }
+
+    record Phase(String name, Map<Operation, Integer> weights) {
+    }
+
+    List<Phase> phases() {
+        return phases;
+    }
+
+    static Scenario from(String name) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестный сценарий: " + name));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static Map<Operation, Integer> weights(Map<Operation, Integer> weights) {
+        return new EnumMap<>(weights);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Клиент API ShareIt, обращающийся к gateway так же, как внешние клиенты.
+ */
+final class ShareItApi {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    ShareItApi(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    record Response(int status, byte[] body) {
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    Response createUser(String name, String email) {
+        return post("/users", null, Map.of("name", name, "email", email));
+    }
+
+    Response createItem(long ownerId, String name, String description) {
+        return post("/items", ownerId, Map.of("name", name, "description", description, "available", true));
+    }
+
+    Response createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return post("/bookings", bookerId, Map.of("itemId", itemId, "start", start.toString(), "end", end.toString()));
+    }
+
+    Response approveBooking(long ownerId, long bookingId) {
+        return send(request("/bookings/" + bookingId + "?approved=true", ownerId)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    Response getItem(long userId, long itemId) {
+        return get("/items/" + itemId, userId);
+    }
+
+    Response getOwnerItems(long ownerId) {
+        return get("/items", ownerId);
+    }
+
+    Response getOwnerBookings(long ownerId) {
+        return get("/bookings/owner", ownerId);
+    }
+
+    Response searchItems(long userId, String text) {
+        return get("/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8), userId);
+    }
+
+    long id(Response response) {
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException("Сервер вернул " + response.status() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        try {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            return id.asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Response get(String path, long userId) {
+        return send(request(path, userId).GET().build());
+    }
+
+    private Response post(String path, Long userId, Object body) {
+        try {
+            return send(request(path, userId)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (userId != null) {
+            builder.header(USER_HEADER, String.valueOf(userId));
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Response(0, e.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
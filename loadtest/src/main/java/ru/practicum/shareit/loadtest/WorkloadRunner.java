@@ -0,0 +1,87 @@
+package ru.practicum.shareit.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+/**
+ * Замкнутая нагрузка: каждый клиент отправляет следующий запрос сразу после ответа на предыдущий.
+ */
+final class WorkloadRunner {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ShareItApi api;
+    private final Dataset dataset;
+    private final Options options;
+
+    WorkloadRunner(ShareItApi api, Dataset dataset, Options options) {
+        this.api = api;
+        this.dataset = dataset;
+        this.options = options;
+    }
+
+    record PhaseResult(String name, Duration elapsed, long allocatedBytes,
+                       Map<Operation, LatencyRecorder.Summary> endpoints) {
+        long requests() {
+            return endpoints.values().stream().mapToLong(LatencyRecorder.Summary::count).sum();
+        }
+    }
+
+    PhaseResult run(Scenario.Phase phase) {
+        drive(phase, options.warmup(), recorders(phase));
+
+        Map<Operation, LatencyRecorder> recorders = recorders(phase);
+        // выделения считаются по всей JVM: gateway, сервер и сам генератор нагрузки
+        long allocatedBefore = THREADS.getTotalThreadAllocatedBytes();
+        long started = System.nanoTime();
+        drive(phase, options.duration(), recorders);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        long allocated = THREADS.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        Map<Operation, LatencyRecorder.Summary> endpoints = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> endpoints.put(operation, recorder.summarize()));
+        return new PhaseResult(phase.name(), elapsed, allocated, endpoints);
+    }
+
+    private void drive(Scenario.Phase phase, Duration duration, Map<Operation, LatencyRecorder> recorders) {
+        Operation[] operations = weighted(phase.weights());
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                clients.submit(() -> {
+                    RandomGenerator random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = operations[random.nextInt(operations.length)];
+                        Supplier<ShareItApi.Response> request = operation.prepare(api, dataset, random);
+                        long started = System.nanoTime();
+                        ShareItApi.Response response = request.get();
+                        recorders.get(operation).record(System.nanoTime() - started, response.isSuccessful());
+                    }
+                });
+            }
+        }
+    }
+
+    private static Map<Operation, LatencyRecorder> recorders(Scenario.Phase phase) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        phase.weights().keySet().forEach(operation -> recorders.put(operation, new LatencyRecorder()));
+        return recorders;
+    }
+
+    /**
+     * Таблица выбора, в которой каждый запрос повторяется столько раз, каков его вес.
+     */
+    private static Operation[] weighted(Map<Operation, Integer> weights) {
+        return weights.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+}
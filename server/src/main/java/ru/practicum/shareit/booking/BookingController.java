@@ -2,10 +2,15 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.config.StatementBudget;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,15 +21,19 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    static final String HAS_MORE_HEADER = "X-Has-More";
+
     private final BookingService bookingService;
 
     @PostMapping
+    @StatementBudget(4)
     public BookingOutDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                        @RequestBody BookingInDto bookingDto) {
         return bookingService.createBooking(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
+    @StatementBudget(6)
     public BookingOutDto approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                      @PathVariable Long bookingId,
                                      @RequestParam Boolean approved) {
@@ -32,20 +41,42 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
+    @StatementBudget(3)
     public BookingOutDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                      @PathVariable Long bookingId) {
         return bookingService.getBookingById(userId, bookingId);
     }
 
+    /**
+     * Без size возвращается первая страница из 20 бронирований. Заголовок X-Has-More сообщает,
+     * есть ли бронирования после последнего в ответе.
+     */
     @GetMapping
-    public List<BookingOutDto> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(defaultValue = "ALL", required = false) String state) {
-        return bookingService.getAllUserBookings(userId, state);
+    @StatementBudget(2)
+    public ResponseEntity<List<BookingOutDto>> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam(defaultValue = "ALL", required = false) String state,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                               @RequestParam(required = false) Long afterId,
+                                               @RequestParam(defaultValue = "20") Integer size) {
+        Window<BookingOutDto> bookings = bookingService.getAllUserBookings(userId, state, afterStart, afterId, size);
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(bookings.hasNext()))
+                .body(bookings.getContent());
     }
 
+    /**
+     * Страницы и заголовок X-Has-More — как в getAllUserBookings.
+     */
     @GetMapping("/owner")
-    public List<BookingOutDto> getAllItemBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(defaultValue = "ALL", required = false) String state) {
-        return bookingService.getAllItemBookings(userId, state);
+    @StatementBudget(2)
+    public ResponseEntity<List<BookingOutDto>> getAllItemBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam(defaultValue = "ALL", required = false) String state,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                               @RequestParam(required = false) Long afterId,
+                                               @RequestParam(defaultValue = "20") Integer size) {
+        Window<BookingOutDto> bookings = bookingService.getAllItemBookings(userId, state, afterStart, afterId, size);
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(bookings.hasNext()))
+                .body(bookings.getContent());
     }
 }
@@ -1,53 +1,87 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long bookerId, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerId(Long bookerId, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime date, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime date, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime date, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime date, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, Status status, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByBookerIdAndStatus(Long bookerId, Status status, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerId(Long ownerId, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start, LocalDateTime end, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime date, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndEndIsBefore(Long ownerId, LocalDateTime date, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime date, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndStartIsAfter(Long ownerId, LocalDateTime date, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, Status status, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, Status status, ScrollPosition position, Limit limit, Sort sort);
 
     List<Booking> findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(Long itemId, Long bookerId, Status status, LocalDateTime end);
 
-    @Query("""
-        SELECT b FROM Booking b
-        WHERE b.item.id IN :itemIds
-        AND b.end < :now
-        AND b.status = 'APPROVED'
-        ORDER BY b.end DESC
-        """)
-    List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
+    List<Booking> findAllByItemIdAndStatusInAndEndIsAfter(Long itemId, Collection<Status> statuses, LocalDateTime end);
 
     @Query("""
-        SELECT b FROM Booking b
-        WHERE b.item.id IN :itemIds
-        AND b.start > :now
-        AND b.status = 'APPROVED'
-        ORDER BY b.start ASC
-        """)
-    List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
+            select count(b) > 0 from Booking b
+            where b.item.id = :itemId
+            and b.status in :statuses
+            and b.start < :end
+            and b.end > :start
+            """)
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("statuses") Collection<Status> statuses,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    @Query(value = """
+        SELECT b.item_id AS itemId, b.id AS id, b.start_date AS "start", b.end_date AS "end", b.booker_id AS bookerId
+        FROM (SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.end_date DESC, bk.id DESC) AS rn
+              FROM bookings bk
+              WHERE bk.item_id IN (:itemIds)
+              AND bk.end_date < :now
+              AND bk.status = 'APPROVED') b
+        WHERE b.rn = 1
+        """, nativeQuery = true)
+    List<BookingItemView> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query(value = """
+        SELECT b.item_id AS itemId, b.id AS id, b.start_date AS "start", b.end_date AS "end", b.booker_id AS bookerId
+        FROM (SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date ASC, bk.id ASC) AS rn
+              FROM bookings bk
+              WHERE bk.item_id IN (:itemIds)
+              AND bk.start_date > :now
+              AND bk.status = 'APPROVED') b
+        WHERE b.rn = 1
+        """, nativeQuery = true)
+    List<BookingItemView> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
 }
@@ -1,9 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 public interface BookingService {
     BookingOutDto createBooking(Long userId, BookingInDto bookingDto);
@@ -12,7 +13,7 @@ public interface BookingService {
 
     BookingOutDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingOutDto> getAllUserBookings(Long userId, String state);
+    Window<BookingOutDto> getAllUserBookings(Long userId, String state, LocalDateTime afterStart, Long afterId, Integer size);
 
-    List<BookingOutDto> getAllItemBookings(Long userId, String state);
+    Window<BookingOutDto> getAllItemBookings(Long userId, String state, LocalDateTime afterStart, Long afterId, Integer size);
 }
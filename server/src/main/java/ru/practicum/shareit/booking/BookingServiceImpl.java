@@ -1,38 +1,47 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final BookingMapper mapper;
+    private final BookingTimelineCache bookingTimelineCache;
 
-    static final Sort sort = Sort.by(Sort.Direction.DESC, "start");
+    static final Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
+    static final int MAX_PAGE_SIZE = 100;
 
     @Override
     public BookingOutDto createBooking(Long userId, BookingInDto bookingDto) {
@@ -48,6 +57,10 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
             throw new InvalidDatesException("Дата окончания бронирования раньше даты начала");
         }
+        // запрос на уже подтверждённый период отклоняется сразу, окончательно период проверяется при подтверждении
+        if (bookingRepository.existsOverlapping(item.getId(), Status.ACTIVE, bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BookingOverlapException("Вещь уже забронирована на указанные даты");
+        }
         Booking booking = mapper.toBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(user);
@@ -64,18 +77,27 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwner().getId().equals(userId)) {
             throw new NoBookingFoundException("Указанный идентификатор пользователя не совпадает с владельцем вещи");
         }
+        boolean wasActive = Status.ACTIVE.contains(booking.getStatus());
         if (approved != null) {
-            booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+            Status status = approved ? Status.APPROVED : Status.REJECTED;
+            if (!wasActive && Status.ACTIVE.contains(status)) {
+                checkPeriodIsFree(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            }
+            booking.setStatus(status);
+        }
+        booking = saveAndFlush(booking);
+        boolean isActive = Status.ACTIVE.contains(booking.getStatus());
+        if (wasActive && !isActive) {
+            bookingTimelineCache.remove(booking);
+        } else if (!wasActive && isActive) {
+            bookingTimelineCache.add(booking);
         }
-        booking = bookingRepository.save(booking);
         return mapper.toBookingOutDto(booking);
     }
 
     @Override
     public BookingOutDto getBookingById(Long userId, Long bookingId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
+        userExistenceService.checkExists(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(
                 () -> new NotFoundException("Бронирование не найдено")
         );
@@ -86,68 +108,107 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingOutDto> getAllUserBookings(Long userId, String stateString) {
+    public Window<BookingOutDto> getAllUserBookings(Long userId,
+                                               @MeterTag(key = "state", resolver = StateTagResolver.class) String stateString,
+                                               LocalDateTime afterStart, Long afterId, Integer size) {
         State state = State.validateState(stateString);
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
-        List<Booking> bookings = new ArrayList<>();
+        userExistenceService.checkExists(userId);
+        ScrollPosition position = toScrollPosition(afterStart, afterId);
+        Limit limit = toLimit(size);
+        Window<Booking> bookings = Window.from(List.of(), ScrollPosition::offset);
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByBookerId(userId, sort);
+                bookings = bookingRepository.findAllByBookerId(userId, position, limit, sort);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), sort);
+                        userId, LocalDateTime.now(), LocalDateTime.now(), position, limit, sort);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndIsBefore(userId, LocalDateTime.now(), sort);
+                bookings = bookingRepository.findAllByBookerIdAndEndIsBefore(userId, LocalDateTime.now(), position, limit, sort);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsAfter(userId, LocalDateTime.now(), sort);
+                bookings = bookingRepository.findAllByBookerIdAndStartIsAfter(userId, LocalDateTime.now(), position, limit, sort);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, sort);
+                bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, position, limit, sort);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, sort);
+                bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, position, limit, sort);
                 break;
         }
-        return bookings.isEmpty() ? Collections.emptyList() : bookings.stream()
-                .map(mapper::toBookingOutDto)
-                .collect(toList());
+        return bookings.map(mapper::toBookingOutDto);
     }
 
     @Override
-    public List<BookingOutDto> getAllItemBookings(Long userId, String stateString) {
+    public Window<BookingOutDto> getAllItemBookings(Long userId,
+                                               @MeterTag(key = "state", resolver = StateTagResolver.class) String stateString,
+                                               LocalDateTime afterStart, Long afterId, Integer size) {
         State state = State.validateState(stateString);
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
-        List<Booking> bookings = new ArrayList<>();
+        userExistenceService.checkExists(userId);
+        ScrollPosition position = toScrollPosition(afterStart, afterId);
+        Limit limit = toLimit(size);
+        Window<Booking> bookings = Window.from(List.of(), ScrollPosition::offset);
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByItemOwnerId(userId, sort);
+                bookings = bookingRepository.findAllByItemOwnerId(userId, position, limit, sort);
                 break;
             case CURRENT:
                 bookings = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), sort);
+                        userId, LocalDateTime.now(), LocalDateTime.now(), position, limit, sort);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndIsBefore(userId, LocalDateTime.now(), sort);
+                bookings = bookingRepository.findAllByItemOwnerIdAndEndIsBefore(userId, LocalDateTime.now(), position, limit, sort);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsAfter(userId, LocalDateTime.now(), sort);
+                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsAfter(userId, LocalDateTime.now(), position, limit, sort);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.WAITING, sort);
+                bookings = bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.WAITING, position, limit, sort);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.REJECTED, sort);
+                bookings = bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.REJECTED, position, limit, sort);
                 break;
         }
-        return bookings.isEmpty() ? Collections.emptyList() : bookings.stream()
-                .map(mapper::toBookingOutDto)
-                .collect(toList());
+        return bookings.map(mapper::toBookingOutDto);
+    }
+
+    /**
+     * Проверка выполняется по БД под блокировкой строки вещи, поэтому параллельные подтверждения
+     * бронирований одной вещи проверяются по очереди. Кэш расписаний здесь не используется: он может не знать
+     * о бронированиях, подтверждённых на других экземплярах, или ещё помнить отменённые.
+     */
+    private void checkPeriodIsFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        itemRepository.lockById(itemId);
+        if (bookingRepository.existsOverlapping(itemId, Status.ACTIVE, start, end)) {
+            throw new BookingOverlapException("Вещь уже забронирована на указанные даты");
+        }
+    }
+
+    private Booking saveAndFlush(Booking booking) {
+        try {
+            booking = bookingRepository.save(booking);
+            bookingRepository.flush();
+            return booking;
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingOverlapException("Вещь уже забронирована на указанные даты");
+        }
+    }
+
+    private ScrollPosition toScrollPosition(LocalDateTime afterStart, Long afterId) {
+        if (afterStart == null && afterId == null) {
+            return ScrollPosition.keyset();
+        }
+        if (afterStart == null || afterId == null) {
+            throw new InvalidPageException("Для продолжения выборки необходимо указать afterStart и afterId");
+        }
+        return ScrollPosition.forward(Map.of("start", afterStart, "id", afterId));
+    }
+
+    private static Limit toLimit(Integer size) {
+        if (size == null || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidPageException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(size);
     }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.common.annotation.ValueResolver;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.State;
+
+import java.util.Arrays;
+
+/**
+ * Значение тега state для метрик выборок бронирований. Строка приходит от клиента,
+ * поэтому всё, что не является State, попадает в один тег и не раздувает число временных рядов.
+ */
+@Component
+public class StateTagResolver implements ValueResolver {
+    static final String UNSUPPORTED = "UNSUPPORTED";
+
+    @Override
+    public String resolve(Object parameter) {
+        return Arrays.stream(State.values())
+                .map(State::name)
+                .filter(name -> name.equals(parameter))
+                .findFirst()
+                .orElse(UNSUPPORTED);
+    }
+}
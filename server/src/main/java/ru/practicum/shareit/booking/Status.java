@@ -1,8 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import java.util.Set;
+
 public enum Status {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    /**
+     * Статусы, при которых бронирование занимает вещь на свой период. Ожидающие запросы вещь не занимают:
+     * на один период их может быть несколько, и владелец подтверждает один из них.
+     */
+    public static final Set<Status> ACTIVE = Set.of(APPROVED);
 }
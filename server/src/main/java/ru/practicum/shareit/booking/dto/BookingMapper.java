@@ -26,6 +26,15 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingItemDto toBookingItemDto(BookingItemView view) {
+        return BookingItemDto.builder()
+                .id(view.getId())
+                .start(view.getStart())
+                .end(view.getEnd())
+                .bookerId(view.getBookerId())
+                .build();
+    }
+
     public Booking toBooking(BookingInDto bookingInDto) {
         Booking booking = new Booking();
         booking.setStart(bookingInDto.getStart());
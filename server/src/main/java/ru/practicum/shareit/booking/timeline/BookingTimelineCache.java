@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.PeriodDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Кэш актуальных бронирований по вещам для ответа о занятости вещи.
+ * Расписание вещи загружается из БД при первом обращении и обновляется после коммита транзакций.
+ * Загрузка и обновления одной вещи выполняются по очереди, поэтому изменение, зафиксированное во время
+ * загрузки, применяется к уже загруженному расписанию, а не теряется.
+ * Изменения на других экземплярах сервера кэш не видит, поэтому пересечения бронирований
+ * проверяются только по БД, а расписание перечитывается из БД, когда с его загрузки прошло ttl.
+ * Обновления после коммита этот срок не продлевают.
+ */
+@Component
+public class BookingTimelineCache {
+    private static final long MICROS_PER_SECOND = 1_000_000;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, IntervalSet> timelines;
+
+    @Autowired
+    public BookingTimelineCache(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.timeline.max-items}") long maxItems,
+                                @Value("${shareit.bookings.timeline.ttl}") Duration ttl) {
+        this(bookingRepository, maxItems, ttl, Ticker.systemTicker());
+    }
+
+    BookingTimelineCache(BookingRepository bookingRepository, long maxItems, Duration ttl, Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfter(new Expiry<Long, IntervalSet>() {
+                    @Override
+                    public long expireAfterCreate(Long itemId, IntervalSet timeline, long currentTime) {
+                        return ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long itemId, IntervalSet timeline, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long itemId, IntervalSet timeline, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Занятые периоды вещи внутри окна [from, to), отсортированные по началу и без пересечений.
+     */
+    public List<PeriodDto> busyPeriods(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long[] busy = timeline(itemId).busy(toMicros(from), toMicros(to));
+        List<PeriodDto> periods = new ArrayList<>(busy.length / 2);
+        for (int i = 0; i < busy.length; i += 2) {
+            periods.add(new PeriodDto(fromMicros(busy[i]), fromMicros(busy[i + 1])));
+        }
+        return periods;
+    }
+
+    public void add(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long id = booking.getId();
+        long start = toMicros(booking.getStart());
+        long end = toMicros(booking.getEnd());
+        afterCommit(() -> update(itemId, timeline -> timeline
+                .withoutEndedBefore(toMicros(LocalDateTime.now()))
+                .with(id, start, end)));
+    }
+
+    public void remove(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long id = booking.getId();
+        afterCommit(() -> update(itemId, timeline -> timeline.without(id)));
+    }
+
+    /**
+     * compute, в отличие от computeIfPresent, дожидается идущей загрузки расписания этой вещи.
+     */
+    private void update(Long itemId, UnaryOperator<IntervalSet> change) {
+        timelines.asMap().compute(itemId, (key, timeline) -> timeline != null ? change.apply(timeline) : null);
+    }
+
+    private IntervalSet timeline(Long itemId) {
+        return timelines.get(itemId, this::load);
+    }
+
+    private IntervalSet load(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        IntervalSet timeline = IntervalSet.EMPTY;
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(itemId, Status.ACTIVE, now)) {
+            timeline = timeline.with(booking.getId(), toMicros(booking.getStart()), toMicros(booking.getEnd()));
+        }
+        return timeline;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.timeline;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемый набор интервалов бронирований одной вещи, отсортированный по началу.
+ * Префиксный максимум окончаний позволяет проверить пересечение за O(log n),
+ * даже если сохранённые интервалы пересекаются между собой.
+ */
+final class IntervalSet {
+    static final IntervalSet EMPTY = new IntervalSet(new long[0], new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] ids;
+    private final long[] maxEnds;
+
+    private IntervalSet(long[] starts, long[] ends, long[] ids) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.maxEnds = new long[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean overlaps(long start, long end) {
+        int candidates = countStartingBefore(end);
+        return candidates > 0 && maxEnds[candidates - 1] > start;
+    }
+
+    /**
+     * Возвращает занятые периоды внутри [from, to): пересекающиеся бронирования склеиваются,
+     * края обрезаются по границам окна. Результат — плоский массив пар начало/окончание.
+     */
+    long[] busy(long from, long to) {
+        int last = countStartingBefore(to);
+        int first = countEndingAtOrBefore(from, last);
+        long[] result = new long[2 * (last - first)];
+        int size = 0;
+        for (int i = first; i < last; i++) {
+            if (ends[i] <= from) {
+                continue;
+            }
+            long start = Math.max(starts[i], from);
+            long end = Math.min(ends[i], to);
+            if (size > 0 && start <= result[size - 1]) {
+                result[size - 1] = Math.max(result[size - 1], end);
+            } else {
+                result[size++] = start;
+                result[size++] = end;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    IntervalSet with(long id, long start, long end) {
+        IntervalSet set = without(id);
+        int pos = set.countStartingBefore(start);
+        while (pos < set.size() && set.starts[pos] == start && set.ids[pos] < id) {
+            pos++;
+        }
+        return new IntervalSet(insert(set.starts, pos, start), insert(set.ends, pos, end), insert(set.ids, pos, id));
+    }
+
+    IntervalSet without(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return new IntervalSet(remove(starts, i), remove(ends, i), remove(ids, i));
+            }
+        }
+        return this;
+    }
+
+    IntervalSet withoutEndedBefore(long time) {
+        int kept = 0;
+        for (long end : ends) {
+            if (end > time) {
+                kept++;
+            }
+        }
+        if (kept == ends.length) {
+            return this;
+        }
+        long[] keptStarts = new long[kept];
+        long[] keptEnds = new long[kept];
+        long[] keptIds = new long[kept];
+        for (int i = 0, j = 0; i < ends.length; i++) {
+            if (ends[i] > time) {
+                keptStarts[j] = starts[i];
+                keptEnds[j] = ends[i];
+                keptIds[j++] = ids[i];
+            }
+        }
+        return new IntervalSet(keptStarts, keptEnds, keptIds);
+    }
+
+    private int countStartingBefore(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int countEndingAtOrBefore(long time, int limit) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] values, int pos, long value) {
+        long[] result = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        result[pos] = value;
+        return result;
+    }
+
+    private static long[] remove(long[] values, int pos) {
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+        return result;
+    }
+}
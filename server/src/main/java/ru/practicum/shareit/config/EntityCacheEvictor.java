@@ -0,0 +1,31 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Убирает сущность из кэша второго уровня. Нужен после принудительного увеличения версии
+ * (LockModeType.*_FORCE_INCREMENT): Hibernate меняет версию в БД, но не в кэше.
+ * Запись удаляется сразу и повторно после коммита, чтобы параллельное чтение
+ * не вернуло в кэш состояние до коммита.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Class<?> type, Object id) {
+        entityManagerFactory.getCache().evict(type, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityManagerFactory.getCache().evict(type, id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Entity;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Гистограмма числа строк, возвращённых методом репозитория: shareit.repository.rows
+ * с тегами repository и method. Учитываются коллекции, страницы, Optional, сущности и проекции;
+ * методы без результата, потоки и скалярные значения пропускаются.
+ */
+class RepositoryRowsInterceptor implements MethodInterceptor {
+    static final String METRIC = "shareit.repository.rows";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    RepositoryRowsInterceptor(Supplier<MeterRegistry> meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Method method = invocation.getMethod();
+        Integer rows = rows(result, method.getReturnType());
+        if (rows != null) {
+            summaries.computeIfAbsent(method, this::summary).record(rows);
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder(METRIC)
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry.get());
+    }
+
+    private static Integer rows(Object result, Class<?> returnType) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        boolean projection = returnType.isInterface() && !returnType.getName().startsWith("java.");
+        if (returnType.isAnnotationPresent(Entity.class) || projection) {
+            return result != null ? 1 : 0;
+        }
+        return null;
+    }
+}
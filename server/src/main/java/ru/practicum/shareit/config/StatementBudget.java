@@ -0,0 +1,17 @@
+package ru.practicum.shareit.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Наибольшее число SQL-запросов, которое может выполнить обработчик. Бюджет не должен зависеть
+ * от размера ответа: рост числа запросов вместе с числом строк означает N+1.
+ * Превышение пишется в журнал и в метрику shareit.request.statements.over.budget.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Заголовки с числом SQL-запросов и бюджетом обработчика для тестов и отладки, в production выключены.
+ * Тело ответа формируется из готовых DTO, поэтому к моменту его записи все запросы уже выполнены.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "shareit.statements.header-enabled", havingValue = "true")
+public class StatementCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String COUNT_HEADER = "X-Statement-Count";
+    public static final String BUDGET_HEADER = "X-Statement-Budget";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(COUNT_HEADER, String.valueOf(StatementCounter.current()));
+        StatementBudget budget = returnType.getMethodAnnotation(StatementBudget.class);
+        if (budget != null) {
+            response.getHeaders().set(BUDGET_HEADER, String.valueOf(budget.value()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate в текущем потоке между start и stop.
+ * Запрос обрабатывается в одном потоке, поэтому счётчик хранится в ThreadLocal;
+ * запросы асинхронной части обработки (StreamingResponseBody) не учитываются.
+ */
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private static final ThreadLocal<Count> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Count count = COUNT.get();
+        if (count != null) {
+            count.value++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public static void start() {
+        COUNT.set(new Count());
+    }
+
+    public static int current() {
+        Count count = COUNT.get();
+        return count != null ? count.value : 0;
+    }
+
+    public static int stop() {
+        int statements = current();
+        COUNT.remove();
+        return statements;
+    }
+
+    private static final class Count {
+        private int value;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class InvalidPageException extends RuntimeException {
+    public InvalidPageException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -8,5 +11,14 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItemId(Long itemId);
 
-    List<Comment> findAllByItemIdIn(List<Long> itemIds);
+    @Query(value = """
+        SELECT c.id AS id, c.item_id AS itemId, c.text AS text, u.name AS authorName, c.create_date AS created
+        FROM (SELECT cm.*, ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.create_date DESC, cm.id DESC) AS rn
+              FROM comments cm
+              WHERE cm.item_id IN (:itemIds)) c
+        JOIN users u ON u.id = c.author_id
+        WHERE c.rn <= :limit
+        ORDER BY c.item_id, c.create_date DESC, c.id DESC
+        """, nativeQuery = true)
+    List<CommentView> findLatestForItems(@Param("itemIds") List<Long> itemIds, @Param("limit") int limit);
 }
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.config.EntityCacheEvictor;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт вещей владельца из JSON-массива или NDJSON.
+ * Тело читается потоково, строки проверяются по отдельности и сохраняются пачками
+ * по batch-size в отдельных транзакциях; результат по каждой строке сразу пишется в ответ.
+ * Если пачку сохранить не удалось, каждая её строка получает ошибку, а следующие пачки сохраняются как обычно.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ItemImporter(ItemRepository itemRepository, UserRepository userRepository,
+                        ItemRequestRepository itemRequestRepository, ItemSearchEngine itemSearchEngine,
+                        ItemMapper itemMapper, ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                        EntityCacheEvictor entityCacheEvictor,
+                        @Value("${shareit.items.import.batch-size}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemMapper = itemMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.batchSize = batchSize;
+    }
+
+    public StreamingResponseBody importItems(Long userId, InputStream body) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с данным id не найден");
+        }
+        return results -> importItems(userId, body, results);
+    }
+
+    void importItems(Long userId, InputStream body, OutputStream results) throws IOException {
+        List<Row> batch = new ArrayList<>(batchSize);
+        int rowNumber = 0;
+        int imported = 0;
+        String error = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                JsonNode node = parser.readValueAsTree();
+                rowNumber++;
+                String rowError;
+                try {
+                    ItemDto itemDto = objectMapper.treeToValue(node, ItemDto.class);
+                    rowError = validate(itemDto);
+                    if (rowError == null) {
+                        batch.add(new Row(rowNumber, itemDto));
+                    }
+                } catch (JsonProcessingException e) {
+                    rowError = "Некорректные данные вещи: " + e.getOriginalMessage();
+                }
+                if (rowError != null) {
+                    write(results, new ItemImportResultDto(rowNumber, null, rowError));
+                }
+                if (batch.size() == batchSize) {
+                    imported += saveBatch(userId, batch, results);
+                }
+                token = parser.nextToken();
+            }
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                error = "Ожидался объект вещи";
+            }
+        } catch (JsonProcessingException e) {
+            error = "Некорректный JSON: " + e.getOriginalMessage();
+        }
+        imported += saveBatch(userId, batch, results);
+        if (error != null) {
+            write(results, new ItemImportResultDto(rowNumber + 1, null, error));
+        }
+        log.info("Импортировано вещей: {} из {}", imported, rowNumber);
+    }
+
+    private int saveBatch(Long userId, List<Row> batch, OutputStream results) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<ItemImportResultDto> batchResults;
+        try {
+            batchResults = transactionTemplate.execute(status -> {
+                User owner = userRepository.getReferenceById(userId);
+                Map<Long, ItemRequest> requests = itemRequestRepository.findAllWithVersionIncrementByIdIn(batch.stream()
+                                .map(row -> row.itemDto().getRequestId())
+                                .filter(Objects::nonNull)
+                                .distinct()
+                                .toList())
+                        .stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                requests.keySet().forEach(requestId -> entityCacheEvictor.evict(ItemRequest.class, requestId));
+
+                List<ItemImportResultDto> rowResults = new ArrayList<>(batch.size());
+                List<ItemImportResultDto> created = new ArrayList<>(batch.size());
+                List<Item> items = new ArrayList<>(batch.size());
+                for (Row row : batch) {
+                    Long requestId = row.itemDto().getRequestId();
+                    if (requestId != null && !requests.containsKey(requestId)) {
+                        rowResults.add(new ItemImportResultDto(row.number(), null, "Запрос с данным id не найден"));
+                        continue;
+                    }
+                    Item item = itemMapper.toItem(row.itemDto());
+                    item.setOwner(owner);
+                    item.setRequest(requests.get(requestId));
+                    items.add(item);
+                    ItemImportResultDto result = new ItemImportResultDto(row.number(), null, null);
+                    created.add(result);
+                    rowResults.add(result);
+                }
+                itemRepository.saveAll(items);
+                entityManager.flush();
+                for (int i = 0; i < items.size(); i++) {
+                    created.get(i).setId(items.get(i).getId());
+                    itemSearchEngine.index(items.get(i));
+                }
+                entityManager.clear();
+                return rowResults;
+            });
+        } catch (PersistenceException | DataAccessException | TransactionException e) {
+            // ответ уже начат со статусом 200, поэтому сбой пачки сообщается в строках, а импорт продолжается
+            log.warn("Не удалось сохранить пачку вещей, строки {}-{}", batch.getFirst().number(),
+                    batch.getLast().number(), e);
+            batchResults = batch.stream()
+                    .map(row -> new ItemImportResultDto(row.number(), null, "Не удалось сохранить вещь"))
+                    .toList();
+        }
+        batch.clear();
+
+        int saved = 0;
+        for (ItemImportResultDto result : batchResults) {
+            write(results, result);
+            if (result.getId() != null) {
+                saved++;
+            }
+        }
+        results.flush();
+        return saved;
+    }
+
+    private void write(OutputStream results, ItemImportResultDto result) throws IOException {
+        results.write(objectMapper.writeValueAsBytes(result));
+        results.write(LINE_SEPARATOR);
+    }
+
+    private static String validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Необходимо указать название вещи";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Необходимо указать описание вещи";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Необходимо указать доступна ли вещь";
+        }
+        return null;
+    }
+
+    private record Row(int number, ItemDto itemDto) {
+    }
+}
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemForRequestView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long userId);
@@ -14,10 +19,28 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             where (lower(i.name) like lower(concat('%', ?1, '%'))
             or lower(i.description) like lower(concat('%', ?1, '%')))
             and i.available = true
+            order by case when lower(i.name) like lower(concat('%', ?1, '%')) then 0 else 1 end, i.id
             """)
     List<Item> searchItems(String text);
 
-    List<Item> findAllByRequestIdIn(List<Long> itemRequestIds);
+    List<Item> findAllByAvailableTrue();
 
-    List<Item> findAllByRequestId(Long requestId);
+    /**
+     * Вещи-ответы на запросы без загрузки сущностей: id владельца берётся из внешнего ключа,
+     * поэтому ни вещи, ни их владельцы не попадают в контекст персистентности.
+     */
+    @Query("""
+            select i.id as itemId, i.name as name, i.owner.id as ownerId, i.request.id as requestId
+            from Item i
+            where i.request.id in ?1
+            order by i.id
+            """)
+    List<ItemForRequestView> findAllForRequests(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> lockById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    Optional<Item> findWithVersionIncrementById(Long id);
 }
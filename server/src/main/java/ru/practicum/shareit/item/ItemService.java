@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDatesDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,6 +13,10 @@ public interface ItemService {
 
     ItemWithDatesDto getItemById(Long id);
 
+    String getItemEtag(Long id);
+
+    ItemAvailabilityDto getAvailability(Long id, LocalDateTime from, LocalDateTime to);
+
     ItemDto createItem(Long userId, ItemDto itemDto);
 
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,15 +9,22 @@ import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.PeriodDto;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.config.EntityCacheEvictor;
+import ru.practicum.shareit.exception.InvalidDatesException;
 import ru.practicum.shareit.exception.NoBookingFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -26,72 +34,61 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.toList;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("shareit.service")
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final EntityCacheEvictor entityCacheEvictor;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
 
+    static final int COMMENTS_PER_ITEM = 10;
+
     @Override
     public List<ItemWithDatesDto> getAllItems(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
+        userExistenceService.checkExists(userId);
         List<Item> items = itemRepository.findAllByOwnerId(userId);
 
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .toList();
 
-        Map<Long, Booking> lastBookingsMap = bookingRepository.findLastBookingsForItems(itemIds, LocalDateTime.now())
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingItemDto> lastBookingsMap = bookingRepository.findLastBookingsForItems(itemIds, now)
                 .stream()
                 .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        booking -> booking
+                        BookingItemView::getItemId,
+                        bookingMapper::toBookingItemDto
                 ));
-        Map<Long, Booking> nextBookingsMap = bookingRepository.findLastBookingsForItems(itemIds, LocalDateTime.now())
+        Map<Long, BookingItemDto> nextBookingsMap = bookingRepository.findNextBookingsForItems(itemIds, now)
                 .stream()
                 .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        booking -> booking
+                        BookingItemView::getItemId,
+                        bookingMapper::toBookingItemDto
                 ));
-        Map<Long, List<Comment>> commentsMap = commentRepository.findAllByItemIdIn(itemIds)
+        Map<Long, List<CommentDto>> commentsMap = commentRepository.findLatestForItems(itemIds, COMMENTS_PER_ITEM)
                 .stream()
                 .collect(Collectors.groupingBy(
-                        comment -> comment.getItem().getId()));
+                        CommentView::getItemId,
+                        Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())));
 
         return items.stream()
                 .map(item -> {
                     ItemWithDatesDto itemDto = itemMapper.toItemWithDatesDto(item);
-                    if (lastBookingsMap.containsKey(item.getId())) {
-                        BookingItemDto lastBookingDto = bookingMapper.toBookingItemDto(
-                                lastBookingsMap.get(item.getId()));
-                        itemDto.setLastBooking(lastBookingDto);
-                    }
-
-                    if (nextBookingsMap.containsKey(item.getId())) {
-                        BookingItemDto nextBookingDto = bookingMapper.toBookingItemDto(
-                                nextBookingsMap.get(item.getId()));
-                        itemDto.setNextBooking(nextBookingDto);
-                    }
-
-                    if (commentsMap.containsKey(item.getId())) {
-                        List<CommentDto> commentDtos = commentsMap.get(item.getId())
-                                .stream()
-                                .map(commentMapper::toCommentDto)
-                                .toList();
-                        itemDto.setComments(commentDtos);
-                    }
+                    itemDto.setLastBooking(lastBookingsMap.get(item.getId()));
+                    itemDto.setNextBooking(nextBookingsMap.get(item.getId()));
+                    itemDto.setComments(commentsMap.get(item.getId()));
                     return itemDto;
                 })
                 .toList();
@@ -113,6 +110,54 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    /**
+     * ETag карточки вещи. Сущность обычно берётся из кэша второго уровня, поэтому
+     * ответ 304 на повторный запрос обходится без обращения к БД.
+     */
+    @Override
+    public String getItemEtag(Long id) {
+        Item item = itemRepository.findById(id).orElseThrow(
+                () -> new NotFoundException("Вещь с данным id не найдена")
+        );
+        return "\"item-" + item.getId() + "-" + item.getVersion() + "\"";
+    }
+
+    /**
+     * Свободные и занятые периоды вещи строятся по кэшу расписаний без выборки истории бронирований.
+     * Изменения с других экземпляров сервера видны не позже, чем через shareit.bookings.timeline.ttl.
+     * Прошедшее время не показывается: начало окна сдвигается на текущий момент.
+     */
+    @Override
+    public ItemAvailabilityDto getAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDatesException("Дата окончания периода должна быть позже даты начала");
+        }
+        if (!itemRepository.existsById(id)) {
+            throw new NotFoundException("Вещь с данным id не найдена");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        List<PeriodDto> busy = start.isBefore(to) ? bookingTimelineCache.busyPeriods(id, start, to) : List.of();
+        List<PeriodDto> free = new ArrayList<>(busy.size() + 1);
+        LocalDateTime freeStart = start;
+        for (PeriodDto period : busy) {
+            if (freeStart.isBefore(period.getStart())) {
+                free.add(new PeriodDto(freeStart, period.getStart()));
+            }
+            freeStart = period.getEnd();
+        }
+        if (freeStart.isBefore(to)) {
+            free.add(new PeriodDto(freeStart, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(id)
+                .from(start.isBefore(to) ? start : to)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
     @Override
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         User user = userRepository.findById(userId).orElseThrow(
@@ -121,13 +166,15 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemMapper.toItem(itemDto);
         item.setOwner(user);
         if (itemDto.getRequestId() != null) {
-            ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId())
+            ItemRequest itemRequest = itemRequestRepository.findWithVersionIncrementById(itemDto.getRequestId())
                     .orElseThrow(
                             () -> new NotFoundException("Запрос с данным id не найден")
                     );
+            entityCacheEvictor.evict(ItemRequest.class, itemRequest.getId());
             item.setRequest(itemRequest);
         }
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
         log.info("Вещь успешно сохранена");
         return itemMapper.toItemDto(item);
     }
@@ -141,10 +188,8 @@ public class ItemServiceImpl implements ItemService {
         Item oldItem = itemRepository.findById(itemId).orElseThrow(
                 () -> new NotFoundException("Вещь с данным id не найдена")
         );
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
-        if (!oldItem.getOwner().getId().equals(user.getId())) {
+        userExistenceService.checkExists(userId);
+        if (!oldItem.getOwner().getId().equals(userId)) {
             log.warn("Указанный идентификатор пользователя не совпадает с идентификатором владельца");
             throw new ValidationException("Указанный идентификатор пользователя не совпадает с идентификатором владельца");
         }
@@ -159,6 +204,8 @@ public class ItemServiceImpl implements ItemService {
             oldItem.setAvailable(itemDto.getAvailable());
         }
         oldItem = itemRepository.save(oldItem);
+        incrementRequestVersion(oldItem);
+        itemSearchEngine.index(oldItem);
         return itemMapper.toItemDto(oldItem);
     }
 
@@ -167,14 +214,14 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(id).orElseThrow(
                 () -> new NotFoundException("Вещь с данным id не найдена")
         );
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
-        if (!item.getOwner().getId().equals(user.getId())) {
+        userExistenceService.checkExists(userId);
+        if (!item.getOwner().getId().equals(userId)) {
             log.warn("Указанный идентификатор пользователя не совпадает с идентификатором владельца");
             throw new ValidationException("Указанный идентификатор пользователя не совпадает с идентификатором владельца");
         }
         itemRepository.deleteById(id);
+        incrementRequestVersion(item);
+        itemSearchEngine.remove(id);
     }
 
     @Override
@@ -182,10 +229,7 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isBlank()) {
             return new ArrayList<>();
         }
-        List<Item> items = itemRepository.searchItems(text);
-        return items.stream()
-                .map(itemMapper::toItemDto)
-                .collect(toList());
+        return itemSearchEngine.search(text);
     }
 
     @Override
@@ -193,9 +237,10 @@ public class ItemServiceImpl implements ItemService {
         User user = userRepository.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь с данным id не найден")
         );
-        Item item = itemRepository.findById(itemId).orElseThrow(
+        Item item = itemRepository.findWithVersionIncrementById(itemId).orElseThrow(
                 () -> new NotFoundException("Вещь с данным id не найдена")
         );
+        entityCacheEvictor.evict(Item.class, itemId);
         List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(
                 itemId, userId, Status.APPROVED, LocalDateTime.now());
         if (bookings.isEmpty()) {
@@ -208,4 +253,15 @@ public class ItemServiceImpl implements ItemService {
         comment = commentRepository.save(comment);
         return commentMapper.toCommentDto(comment);
     }
+
+    /**
+     * Вещи показываются в ответе на запрос, поэтому их изменение должно менять ETag запроса.
+     */
+    private void incrementRequestVersion(Item item) {
+        if (item.getRequest() != null) {
+            Long requestId = item.getRequest().getId();
+            itemRequestRepository.findWithVersionIncrementById(requestId);
+            entityCacheEvictor.evict(ItemRequest.class, requestId);
+        }
+    }
 }
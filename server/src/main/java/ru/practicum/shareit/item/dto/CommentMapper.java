@@ -14,6 +14,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public CommentDto toCommentDto(CommentView view) {
+        return CommentDto.builder()
+                .id(view.getId())
+                .text(view.getText())
+                .authorName(view.getAuthorName())
+                .created(view.getCreated())
+                .build();
+    }
+
     public Comment toComment(CommentDto commentDto) {
         Comment comment = new Comment();
         comment.setText(commentDto.getText());
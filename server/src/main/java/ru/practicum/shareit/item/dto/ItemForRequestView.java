@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemForRequestView {
+    Long getItemId();
+
+    String getName();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
@@ -24,11 +24,11 @@ public class ItemMapper {
                 .build();
     }
 
-    public ItemForRequestDto toItemForRequestDto(Item item) {
+    public ItemForRequestDto toItemForRequestDto(ItemForRequestView item) {
         return ItemForRequestDto.builder()
-                .itemId(item.getId())
+                .itemId(item.getItemId())
                 .name(item.getName())
-                .ownerId(item.getOwner().getId())
+                .ownerId(item.getOwnerId())
                 .build();
     }
 
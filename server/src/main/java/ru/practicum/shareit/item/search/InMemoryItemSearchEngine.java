@@ -0,0 +1,236 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный инвертированный индекс доступных вещей в памяти сервера.
+ * Строится при создании бина, до того как сервер начнёт принимать запросы, и поддерживается
+ * ItemServiceImpl после коммита транзакций, поэтому поиск не обращается к БД.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+
+    /**
+     * Изменения, зафиксированные во время перестроения: последнее состояние вещи по id, null — удаление.
+     * Снимок из БД может их не содержать, поэтому перед подменой они применяются к новому индексу.
+     */
+    private Map<Long, Document> pending;
+
+    /**
+     * Строит новый индекс по снимку из БД и подменяет им текущий. Пока новый индекс строится,
+     * поиск работает по старому, а изменения применяются к нему и копятся в pending.
+     */
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index fresh = new Index();
+        try {
+            List<Item> items = new ArrayList<>(itemRepository.findAllByAvailableTrue());
+            // по возрастанию id идентификаторы дописываются в конец списков, без сдвига массивов
+            items.sort(Comparator.comparing(Item::getId));
+            for (Item item : items) {
+                Document document = Document.of(item);
+                if (document != null) {
+                    fresh.put(document);
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pending.forEach(fresh::apply);
+            pending = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен, вещей: {}", fresh.documents.size());
+    }
+
+    @Override
+    public List<ItemDto> search(String text) {
+        String query = text.toLowerCase();
+        lock.readLock().lock();
+        try {
+            List<Document> byName = new ArrayList<>();
+            List<Document> byDescription = new ArrayList<>();
+            for (Document document : index.candidates(query)) {
+                if (document.lowerName.contains(query)) {
+                    byName.add(document);
+                } else if (document.lowerDescription.contains(query)) {
+                    byDescription.add(document);
+                }
+            }
+            List<ItemDto> result = new ArrayList<>(byName.size() + byDescription.size());
+            byName.forEach(document -> result.add(document.toItemDto()));
+            byDescription.forEach(document -> result.add(document.toItemDto()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = Document.of(item);
+        Long id = item.getId();
+        afterCommit(() -> update(id, document));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> update(itemId, null));
+    }
+
+    private void update(Long id, Document document) {
+        lock.writeLock().lock();
+        try {
+            index.apply(id, document);
+            if (pending != null) {
+                pending.put(id, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static class Index {
+        private final NavigableMap<Long, Document> documents = new TreeMap<>();
+        private final Map<Long, PostingList> postings = new HashMap<>();
+
+        Collection<Document> candidates(String query) {
+            if (query.length() < GRAM) {
+                return documents.values();
+            }
+            List<PostingList> lists = new ArrayList<>();
+            for (long gram : grams(query)) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            PostingList smallest = lists.getFirst();
+            List<Document> result = new ArrayList<>(smallest.size());
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(id);
+                }
+                if (inAll) {
+                    result.add(documents.get(id));
+                }
+            }
+            return result;
+        }
+
+        void apply(Long id, Document document) {
+            delete(id);
+            if (document != null) {
+                put(document);
+            }
+        }
+
+        void put(Document document) {
+            documents.put(document.id, document);
+            for (long gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(document.id);
+            }
+        }
+
+        void delete(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (long gram : document.grams()) {
+                PostingList list = postings.get(gram);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Document(long id, String name, String description, Long requestId,
+                            String lowerName, String lowerDescription) {
+        static Document of(Item item) {
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return null;
+            }
+            return new Document(item.getId(), item.getName(), item.getDescription(),
+                    item.getRequest() != null ? item.getRequest().getId() : null,
+                    item.getName().toLowerCase(), item.getDescription().toLowerCase());
+        }
+
+        Set<Long> grams() {
+            Set<Long> grams = InMemoryItemSearchEngine.grams(lowerName);
+            grams.addAll(InMemoryItemSearchEngine.grams(lowerDescription));
+            return grams;
+        }
+
+        ItemDto toItemDto() {
+            return new ItemDto(id, name, description, true, requestId);
+        }
+    }
+}
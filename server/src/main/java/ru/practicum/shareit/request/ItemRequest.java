@@ -3,6 +3,8 @@ package ru.practicum.shareit.request;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -10,16 +12,18 @@ import java.time.LocalDateTime;
 /**
  * TODO Sprint add-item-requests.
  */
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "requests")
 @Table(name = "requests")
 @Getter
 @Setter
 @ToString
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -32,4 +36,17 @@ public class ItemRequest {
 
     @Column(name = "create_date")
     private LocalDateTime created;
+
+    /**
+     * Растёт при изменении вещей, созданных по запросу, служит основой ETag.
+     */
+    @Version
+    private Long version;
+
+    public ItemRequest(Long id, String description, User requester, LocalDateTime created) {
+        this.id = id;
+        this.description = description;
+        this.requester = requester;
+        this.created = created;
+    }
 }
@@ -2,10 +2,16 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.config.StatementBudget;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,6 +22,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    static final String HAS_MORE_HEADER = "X-Has-More";
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -25,18 +33,34 @@ public class ItemRequestController {
     }
 
     @GetMapping
+    @StatementBudget(3)
     public List<ItemRequestWithItemsDto> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemRequestService.getRequests(userId);
     }
 
+    /**
+     * Заголовок X-Has-More сообщает, есть ли запросы после последнего в ответе.
+     */
     @GetMapping("/all")
-    public List<ItemRequestDto> getRequestsAll(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getRequestsAll(userId);
+    @StatementBudget(2)
+    public ResponseEntity<List<ItemRequestDto>> getRequestsAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                               @RequestParam(required = false) Long afterId,
+                                                               @RequestParam(defaultValue = "20") Integer size) {
+        Window<ItemRequestDto> requests = itemRequestService.getRequestsAll(userId, afterCreated, afterId, size);
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(requests.hasNext()))
+                .body(requests.getContent());
     }
 
     @GetMapping("/{requestId}")
+    @StatementBudget(2)
     public ItemRequestWithItemsDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long requestId) {
+                                         @PathVariable Long requestId,
+                                         WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getRequestEtag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getRequestById(userId,requestId);
     }
 }
@@ -1,11 +1,25 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequesterId(Long requesterId);
 
-    List<ItemRequest> findAllByRequesterIdNot(Long requesterID, Sort sort);
+    Window<ItemRequest> findAllByRequesterIdNot(Long requesterId, ScrollPosition position, Limit limit, Sort sort);
+
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    Optional<ItemRequest> findWithVersionIncrementById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    List<ItemRequest> findAllWithVersionIncrementByIdIn(Collection<Long> ids);
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestService {
@@ -10,7 +12,9 @@ public interface ItemRequestService {
 
     List<ItemRequestWithItemsDto> getRequests(Long userId);
 
-    List<ItemRequestDto> getRequestsAll(Long userId);
+    Window<ItemRequestDto> getRequestsAll(Long userId, LocalDateTime afterCreated, Long afterId, Integer size);
 
     ItemRequestWithItemsDto getRequestById(Long userId, Long requestId);
+
+    String getRequestEtag(Long userId, Long requestId);
 }
@@ -1,18 +1,24 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.InvalidPageException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.dto.ItemForRequestView;
 import ru.practicum.shareit.item.dto.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -25,9 +31,14 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("shareit.service")
 public class ItemRequestServiceImpl implements ItemRequestService {
+    static final Sort ALL_REQUESTS_SORT = Sort.by(Sort.Direction.DESC, "created", "id");
+    static final int MAX_PAGE_SIZE = 100;
+
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
@@ -46,61 +57,83 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestWithItemsDto> getRequests(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
+        userExistenceService.checkExists(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterId(userId);
         List<Long> itemRequestIds = itemRequests.stream()
                 .map(ItemRequest::getId)
                 .toList();
 
-        Map<Long, List<Item>> itemsMap = itemRepository.findAllByRequestIdIn(itemRequestIds)
-                .stream()
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        Map<Long, List<ItemForRequestDto>> itemsMap = findItemsForRequests(itemRequestIds);
 
         return itemRequests.stream()
                 .map(request -> {
                     ItemRequestWithItemsDto requestWithItems = itemRequestMapper.toItemRequestWithItemsDto(request);
-                    if (itemsMap.containsKey(request.getId())) {
-                        List<ItemForRequestDto> itemForRequestDtos = itemsMap.get(request.getId())
-                                .stream()
-                                .map(itemMapper::toItemForRequestDto)
-                                .toList();
-                        requestWithItems.setItems(itemForRequestDtos);
-                    }
+                    requestWithItems.setItems(itemsMap.get(request.getId()));
                     return requestWithItems;
                 })
                 .toList();
     }
 
+    /**
+     * Страница чужих запросов, от новых к старым. Следующая страница начинается после запроса
+     * с датой создания afterCreated и идентификатором afterId, что позволяет БД читать индекс
+     * по (create_date, id) с нужного места вместо пропуска уже показанных строк.
+     */
     @Override
-    public List<ItemRequestDto> getRequestsAll(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIdNot(userId, sort);
-        return itemRequests.stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .toList();
+    public Window<ItemRequestDto> getRequestsAll(Long userId, LocalDateTime afterCreated, Long afterId, Integer size) {
+        userExistenceService.checkExists(userId);
+        ScrollPosition position = toScrollPosition(afterCreated, afterId);
+        return itemRequestRepository.findAllByRequesterIdNot(userId, position, toLimit(size), ALL_REQUESTS_SORT)
+                .map(itemRequestMapper::toItemRequestDto);
     }
 
     @Override
     public ItemRequestWithItemsDto getRequestById(Long userId, Long requestId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с данным id не найден")
-        );
+        userExistenceService.checkExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId).orElseThrow(
                 () -> new NotFoundException("Запрос с данным id не найден")
         );
         ItemRequestWithItemsDto res = itemRequestMapper.toItemRequestWithItemsDto(itemRequest);
-        List<Item> items = itemRepository.findAllByRequestId(requestId);
-        if (!items.isEmpty()) {
-            List<ItemForRequestDto> itemDtos = items.stream()
-                    .map(itemMapper::toItemForRequestDto)
-                    .toList();
-            res.setItems(itemDtos);
-        }
+        res.setItems(findItemsForRequests(List.of(requestId)).get(requestId));
         return res;
     }
+
+    /**
+     * ETag запроса с вещами. Версия запроса растёт при изменении его вещей, а сам запрос
+     * обычно берётся из кэша второго уровня, поэтому ответ 304 обходится без обращения к БД.
+     */
+    @Override
+    public String getRequestEtag(Long userId, Long requestId) {
+        userExistenceService.checkExists(userId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId).orElseThrow(
+                () -> new NotFoundException("Запрос с данным id не найден")
+        );
+        return "\"request-" + itemRequest.getId() + "-" + itemRequest.getVersion() + "\"";
+    }
+
+    private Map<Long, List<ItemForRequestDto>> findItemsForRequests(List<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findAllForRequests(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemForRequestView::getRequestId,
+                        Collectors.mapping(itemMapper::toItemForRequestDto, Collectors.toList())));
+    }
+
+    private ScrollPosition toScrollPosition(LocalDateTime afterCreated, Long afterId) {
+        if (afterCreated == null && afterId == null) {
+            return ScrollPosition.keyset();
+        }
+        if (afterCreated == null || afterId == null) {
+            throw new InvalidPageException("Для продолжения выборки необходимо указать afterCreated и afterId");
+        }
+        return ScrollPosition.forward(Map.of("created", afterCreated, "id", afterId));
+    }
+
+    private static Limit toLimit(Integer size) {
+        if (size == null || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidPageException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(size);
+    }
 }
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по email пользователей. Отрицательный ответ означает, что email точно не занят,
+ * и проверку в БД можно пропустить. Удалённые email из фильтра не убираются — это лишь даёт лишнюю проверку.
+ * До первого построения фильтр считает занятым любой email.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final UserRepository userRepository;
+    private final int expectedEmails;
+    private final double falsePositiveRate;
+
+    private volatile Bits bits;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${shareit.users.email-filter.expected-emails}") int expectedEmails,
+                            @Value("${shareit.users.email-filter.false-positive-rate}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Размер фильтра выбирается с запасом под текущее число пользователей.
+     * Email, добавленные во время построения в старый фильтр, могут не попасть в новый —
+     * такой редкий пропуск перехватывает уникальный индекс UQ_USER_EMAIL.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<String> emails = userRepository.findAllEmails();
+        Bits rebuilt = Bits.create(Math.max(expectedEmails, 2 * emails.size()), falsePositiveRate);
+        emails.forEach(rebuilt::put);
+        bits = rebuilt;
+        log.info("Фильтр email построен, пользователей: {}, бит: {}", emails.size(), rebuilt.size());
+    }
+
+    public boolean mightContain(String email) {
+        Bits current = bits;
+        return current == null || current.mightContain(email);
+    }
+
+    public void put(String email) {
+        Bits current = bits;
+        if (current != null) {
+            current.put(email);
+        }
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashCount;
+
+        private Bits(long size, int hashCount) {
+            this.words = new AtomicLongArray((int) ((size + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashCount = hashCount;
+        }
+
+        static Bits create(int expected, double falsePositiveRate) {
+            long size = Math.max(64, (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2)));
+            int hashCount = Math.max(1, (int) Math.round((double) size / expected * LN2));
+            return new Bits(size, hashCount);
+        }
+
+        long size() {
+            return size;
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        private long index(int combinedHash) {
+            return (combinedHash & Integer.MAX_VALUE) % size;
+        }
+
+        /**
+         * FNV-1a по символам строки с финальным перемешиванием из MurmurHash3.
+         */
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.config.StatementBudget;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -16,11 +17,13 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
+    @StatementBudget(1)
     public List<UserDto> getAllUsers() {
         return userService.getAllUsers();
     }
 
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public UserDto getUserById(@PathVariable Long id) {
         return userService.getUserById(id);
     }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Проверка существования пользователя без загрузки сущности.
+ * Известные идентификаторы хранятся в битовой карте: найденный в ней пользователь не требует обращения к БД,
+ * остальные проверяются через existsById и запоминаются. Отсутствие пользователя не кэшируется,
+ * поэтому созданный на другом экземпляре сервера пользователь будет найден при первом же обращении.
+ * Удалённые идентификаторы помечаются навсегда (id выдаются последовательностью и не переиспользуются),
+ * и запоздавшая положительная проверка уже не вернёт их в карту.
+ * Удаление пользователя на другом экземпляре этот кэш не видит.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExistenceService {
+    private final UserRepository userRepository;
+
+    private final BitSet knownIds = new BitSet();
+    private final BitSet deletedIds = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void checkExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException("Пользователь с данным id не найден");
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (isKnown(userId)) {
+            return true;
+        }
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+        remember(userId, true);
+        return true;
+    }
+
+    public void registerCreated(Long userId) {
+        afterCommit(() -> remember(userId, true));
+    }
+
+    /**
+     * Идентификатор забывается сразу, а после коммита помечается удалённым. Проверка, которая успела
+     * выполнить existsById до фиксации удаления, после этого не сможет его запомнить.
+     */
+    public void registerDeleted(Long userId) {
+        remember(userId, false);
+        afterCommit(() -> markDeleted(userId));
+    }
+
+    private boolean isKnown(long userId) {
+        if (!fitsBitSet(userId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return knownIds.get((int) userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remember(long userId, boolean exists) {
+        if (!fitsBitSet(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.set((int) userId, exists && !deletedIds.get((int) userId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markDeleted(long userId) {
+        if (!fitsBitSet(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            deletedIds.set((int) userId);
+            knownIds.clear((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean fitsBitSet(long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
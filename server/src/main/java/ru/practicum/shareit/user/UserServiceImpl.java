@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -11,6 +14,7 @@ import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Locale;
 
 import static java.util.stream.Collectors.toList;
 
@@ -18,9 +22,14 @@ import static java.util.stream.Collectors.toList;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("shareit.service")
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository repository;
     private final UserMapper userMapper;
+    private final UserExistenceService userExistenceService;
+    private final EmailBloomFilter emailBloomFilter;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -40,13 +49,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto createUser(UserDto userDto) {
-        repository.findByEmail(userDto.getEmail()).ifPresent(
-                user -> {
-                    throw new ValidationException("Пользователь с таким email уже существует");
-                }
-        );
+        checkEmailIsFree(userDto.getEmail());
         User user = userMapper.toUser(userDto);
-        user = repository.save(user);
+        user = saveAndFlush(user);
+        emailBloomFilter.put(user.getEmail());
+        userExistenceService.registerCreated(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -60,11 +67,7 @@ public class UserServiceImpl implements UserService {
                 () -> new NotFoundException("Пользователь с данным id не найден")
         );
         if (userDto.getEmail() != null && !userDto.getEmail().equals(oldUser.getEmail())) {
-            repository.findByEmail(userDto.getEmail()).ifPresent(
-                    user -> {
-                        throw new ValidationException("Пользователь с таким email уже существует");
-                    }
-            );
+            checkEmailIsFree(userDto.getEmail());
         }
 
         if (userDto.getEmail() != null) {
@@ -73,7 +76,8 @@ public class UserServiceImpl implements UserService {
         if (userDto.getName() != null) {
             oldUser.setName(userDto.getName());
         }
-        oldUser = repository.save(oldUser);
+        oldUser = saveAndFlush(oldUser);
+        emailBloomFilter.put(oldUser.getEmail());
         return UserMapper.toUserDto(oldUser);
     }
 
@@ -83,5 +87,44 @@ public class UserServiceImpl implements UserService {
                 () -> new NotFoundException("Пользователь с данным id не найден")
         );
         repository.deleteById(id);
+        userExistenceService.registerDeleted(id);
+    }
+
+    /**
+     * Поиск по email выполняется, только если фильтр Блума допускает, что email занят.
+     * Окончательно уникальность гарантирует ограничение UQ_USER_EMAIL, см. saveAndFlush.
+     */
+    private void checkEmailIsFree(String email) {
+        if (!emailBloomFilter.mightContain(email)) {
+            return;
+        }
+        repository.findByEmail(email).ifPresent(
+                user -> {
+                    throw new ValidationException("Пользователь с таким email уже существует");
+                }
+        );
+    }
+
+    private User saveAndFlush(User user) {
+        try {
+            user = repository.save(user);
+            repository.flush();
+            return user;
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailTaken(e)) {
+                throw new ValidationException("Пользователь с таким email уже существует");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Имя ограничения в разных БД приходит в разном виде: в H2 вместе с индексом и таблицей,
+     * в PostgreSQL в нижнем регистре, поэтому ищется вхождение без учёта регистра.
+     */
+    private static boolean isEmailTaken(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException cause
+                && cause.getConstraintName() != null
+                && cause.getConstraintName().toUpperCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
     }
 }
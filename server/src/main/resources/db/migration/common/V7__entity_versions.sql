@@ -0,0 +1,4 @@
+-- Версии для ETag и оптимистических блокировок
+ALTER TABLE items ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE requests ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,34 @@
+-- До ограничения excl_bookings_item_period (V6) пересечения бронирований не запрещались,
+-- и на такой базе V6 не выполнится. Данные здесь не меняются: миграция останавливается со списком
+-- бронирований, которые нужно разобрать вручную (отклонить или перенести одно из каждой пары).
+DO $$
+DECLARE
+    inverted TEXT;
+    overlapping TEXT;
+BEGIN
+    -- tsrange с окончанием раньше начала построить нельзя
+    SELECT string_agg(id::TEXT, ', ' ORDER BY id)
+    INTO inverted
+    FROM bookings
+    WHERE status = 'APPROVED'
+      AND end_date < start_date;
+
+    -- условия повторяют tsrange(start_date, end_date) && ..., где пустой интервал ни с чем не пересекается
+    SELECT string_agg(e.id || '/' || b.id, ', ' ORDER BY e.id, b.id)
+    INTO overlapping
+    FROM bookings b
+    JOIN bookings e ON e.item_id = b.item_id AND e.id < b.id
+    WHERE b.status = 'APPROVED'
+      AND e.status = 'APPROVED'
+      AND b.start_date < b.end_date
+      AND e.start_date < e.end_date
+      AND e.start_date < b.end_date
+      AND b.start_date < e.end_date;
+
+    IF inverted IS NOT NULL OR overlapping IS NOT NULL THEN
+        RAISE EXCEPTION 'Подтверждённые бронирования мешают ограничению excl_bookings_item_period. '
+            'Окончание раньше начала, id: %. Пересекаются, пары id: %',
+            coalesce(inverted, '-'), coalesce(overlapping, '-');
+    END IF;
+END
+$$;
@@ -0,0 +1,7 @@
+-- Подтверждённые бронирования одной вещи не могут пересекаться по времени.
+-- Ожидающие запросы могут: владелец выбирает, какой из них подтвердить
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_period
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
@@ -0,0 +1,200 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DatabaseIndexesTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private StatementCapture statements;
+
+    @Test
+    void migrations_whenApplied_thenAccessPathIndexesExist() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes", String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_bookings_booker_start",
+                "idx_bookings_item_start",
+                "idx_bookings_item_status_end",
+                "idx_bookings_item_status_start",
+                "idx_items_owner",
+                "idx_items_request",
+                "idx_comments_item",
+                "idx_requests_requester_created",
+                "idx_requests_created_id"
+        )), () -> "Найдены индексы: " + indexes);
+    }
+
+    /**
+     * План строится для SQL, который Hibernate выполняет в каждом методе репозитория, с теми же параметрами.
+     * Поиск по подстроке (searchItems) не проверяется: на PostgreSQL он идёт по триграммному индексу,
+     * которого в H2 нет. Блокирующие методы выбирают строку по первичному ключу.
+     */
+    @TestFactory
+    Stream<DynamicTest> explain_whenRepositoryMethodCalled_thenIndexScanUsed() {
+        LocalDateTime now = LocalDateTime.now();
+        ScrollPosition after = ScrollPosition.forward(Map.of("start", now, "id", 1L));
+        Limit limit = Limit.of(20);
+        Sort byStart = Sort.by(Sort.Direction.DESC, "start", "id");
+        Sort byCreated = Sort.by(Sort.Direction.DESC, "created", "id");
+
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("BookingRepository.findAllByBookerId", () -> bookingRepository.findAllByBookerId(1L,
+                ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByBookerId (продолжение)", () -> bookingRepository.findAllByBookerId(1L,
+                after, limit, byStart));
+        calls.put("BookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter", () -> bookingRepository
+                .findAllByBookerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByBookerIdAndEndIsBefore", () -> bookingRepository
+                .findAllByBookerIdAndEndIsBefore(1L, now, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByBookerIdAndStartIsAfter", () -> bookingRepository
+                .findAllByBookerIdAndStartIsAfter(1L, now, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByBookerIdAndStatus", () -> bookingRepository
+                .findAllByBookerIdAndStatus(1L, Status.WAITING, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByItemOwnerId", () -> bookingRepository.findAllByItemOwnerId(1L,
+                ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByItemOwnerId (продолжение)", () -> bookingRepository
+                .findAllByItemOwnerId(1L, after, limit, byStart));
+        calls.put("BookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter", () -> bookingRepository
+                .findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, ScrollPosition.keyset(), limit,
+                        byStart));
+        calls.put("BookingRepository.findAllByItemOwnerIdAndEndIsBefore", () -> bookingRepository
+                .findAllByItemOwnerIdAndEndIsBefore(1L, now, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByItemOwnerIdAndStartIsAfter", () -> bookingRepository
+                .findAllByItemOwnerIdAndStartIsAfter(1L, now, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByItemOwnerIdAndStatus", () -> bookingRepository
+                .findAllByItemOwnerIdAndStatus(1L, Status.WAITING, ScrollPosition.keyset(), limit, byStart));
+        calls.put("BookingRepository.findAllByItemIdAndBookerIdAndStatusAndEndIsBefore", () -> bookingRepository
+                .findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(1L, 2L, Status.APPROVED, now));
+        calls.put("BookingRepository.findAllByItemIdAndStatusInAndEndIsAfter", () -> bookingRepository
+                .findAllByItemIdAndStatusInAndEndIsAfter(1L, Status.ACTIVE, now));
+        calls.put("BookingRepository.existsOverlapping", () -> bookingRepository
+                .existsOverlapping(1L, Status.ACTIVE, now, now.plusDays(1)));
+        calls.put("BookingRepository.findLastBookingsForItems", () -> bookingRepository
+                .findLastBookingsForItems(List.of(1L, 2L), now));
+        calls.put("BookingRepository.findNextBookingsForItems", () -> bookingRepository
+                .findNextBookingsForItems(List.of(1L, 2L), now));
+        calls.put("ItemRepository.findAllByOwnerId", () -> itemRepository.findAllByOwnerId(1L));
+        calls.put("ItemRepository.findAllForRequests", () -> itemRepository.findAllForRequests(List.of(1L, 2L)));
+        calls.put("CommentRepository.findAllByItemId", () -> commentRepository.findAllByItemId(1L));
+        calls.put("CommentRepository.findLatestForItems", () -> commentRepository
+                .findLatestForItems(List.of(1L, 2L), 10));
+        calls.put("ItemRequestRepository.findAllByRequesterId", () -> itemRequestRepository.findAllByRequesterId(1L));
+        calls.put("ItemRequestRepository.findAllByRequesterIdNot", () -> itemRequestRepository
+                .findAllByRequesterIdNot(1L, ScrollPosition.keyset(), limit, byCreated));
+        calls.put("ItemRequestRepository.findAllByRequesterIdNot (продолжение)", () -> itemRequestRepository
+                .findAllByRequesterIdNot(1L, ScrollPosition.forward(Map.of("created", now, "id", 1L)), limit,
+                        byCreated));
+
+        return calls.entrySet().stream().map(call -> DynamicTest.dynamicTest(call.getKey(), () -> {
+            List<QueryInfo> queries = statements.capture(call.getValue());
+
+            assertFalse(queries.isEmpty(), "Метод не выполнил SQL-запросов");
+            for (QueryInfo query : queries) {
+                String plan = explain(query);
+                assertFalse(plan.contains("tableScan"), () -> "Полный просмотр таблицы: " + plan);
+            }
+        }));
+    }
+
+    private String explain(QueryInfo query) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getQuery());
+            for (ParameterSetOperation operation : query.getParametersList().getFirst()) {
+                Object[] args = operation.getArgs();
+                if (operation.getMethod().getName().equals("setNull")) {
+                    statement.setNull((Integer) args[0], (Integer) args[1]);
+                } else {
+                    statement.setObject((Integer) args[0], args[1]);
+                }
+            }
+            return statement;
+        }, (ResultSet resultSet) -> {
+            resultSet.next();
+            return resultSet.getString(1);
+        });
+    }
+
+    /**
+     * SQL и параметры запросов, выполненных через DataSource, пока идёт capture.
+     */
+    static class StatementCapture implements QueryExecutionListener {
+        private final List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+        private volatile boolean capturing;
+
+        List<QueryInfo> capture(Runnable call) {
+            queries.clear();
+            capturing = true;
+            try {
+                call.run();
+            } finally {
+                capturing = false;
+            }
+            return List.copyOf(queries);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (capturing) {
+                queries.addAll(queryInfoList);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EntityTagIntegrationTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.createUser(new UserDto(null, "Owner", "owner@mail.ru"));
+        booker = userService.createUser(new UserDto(null, "Booker", "booker@mail.ru"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void getItemById_whenNotChanged_thenNotModifiedWithoutStatements() throws Exception {
+        // Given
+        ItemDto item = itemService.createItem(owner.getId(), new ItemDto(null, "Дрель", "Простая дрель", true, null));
+        String etag = getEtag("/items/" + item.getId(), owner.getId());
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        // When & Then
+        mvc.perform(get("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getItemById_whenUpdatedOrCommented_thenEtagChanges() throws Exception {
+        // Given
+        ItemDto item = itemService.createItem(owner.getId(), new ItemDto(null, "Дрель", "Простая дрель", true, null));
+        String created = getEtag("/items/" + item.getId(), owner.getId());
+
+        // When
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Перфоратор", null, null, null));
+        String updated = getEtag("/items/" + item.getId(), owner.getId());
+        Item entity = itemRepository.findById(item.getId()).orElseThrow();
+        User bookerEntity = userRepository.findById(booker.getId()).orElseThrow();
+        bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                entity, bookerEntity, Status.APPROVED));
+        itemService.createComment(booker.getId(), item.getId(), CommentDto.builder().text("Отличная вещь").build());
+        String commented = getEtag("/items/" + item.getId(), owner.getId());
+
+        // Then
+        assertNotEquals(created, updated);
+        assertNotEquals(updated, commented);
+        mvc.perform(get("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getRequestById_whenItemAddedOrRenamed_thenEtagChanges() throws Exception {
+        // Given
+        ItemRequestDto request = itemRequestService.createItemRequest(booker.getId(),
+                ItemRequestDto.builder().description("Нужна дрель").build());
+        String path = "/requests/" + request.getId();
+        String created = getEtag(path, booker.getId());
+        long statementsBefore = statistics.getPrepareStatementCount();
+        mvc.perform(get(path)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, created))
+                .andExpect(status().isNotModified());
+        assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+
+        // When
+        ItemDto item = itemService.createItem(owner.getId(),
+                new ItemDto(null, "Дрель", "Простая дрель", true, request.getId()));
+        String withItem = getEtag(path, booker.getId());
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Перфоратор", null, null, null));
+        String renamed = getEtag(path, booker.getId());
+
+        // Then
+        assertNotEquals(created, withItem);
+        assertNotEquals(withItem, renamed);
+    }
+
+    private String getEtag(String path, Long userId) throws Exception {
+        String etag = mvc.perform(get(path).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void getUserById_whenLoadedBefore_thenServedFromCacheAndUpdatedOnChange() {
+        // Given
+        UserDto user = userService.createUser(new UserDto(null, "Alex", "alex@mail.ru"));
+        userService.getUserById(user.getId());
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        // When
+        userService.getUserById(user.getId());
+        userService.updateUser(user.getId(), new UserDto(null, "Alexander", null));
+
+        // Then
+        assertEquals(statementsBefore + 1, statistics.getPrepareStatementCount(),
+                "повторное чтение и поиск при обновлении не должны обращаться к БД, только UPDATE");
+        assertEquals("Alexander", userService.getUserById(user.getId()).getName());
+        assertTrue(regionStatistics("users").getHitCount() >= 3);
+
+        userService.deleteUser(user.getId());
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void getItemById_whenItemChanged_thenCacheReflectsChange() {
+        // Given
+        UserDto owner = userService.createUser(new UserDto(null, "Owner", "owner@mail.ru"));
+        ItemDto item = itemService.createItem(owner.getId(), new ItemDto(null, "Дрель", "Простая дрель", true, null));
+        itemService.getItemById(item.getId());
+
+        // When
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Перфоратор", null, false, null));
+
+        // Then
+        assertEquals("Перфоратор", itemService.getItemById(item.getId()).getName());
+        assertFalse(itemService.getItemById(item.getId()).getAvailable());
+        assertTrue(regionStatistics("items").getHitCount() > 0);
+
+        itemService.deleteItem(owner.getId(), item.getId());
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(item.getId()));
+    }
+
+    @Test
+    void metrics_whenCacheUsed_thenHitsExposed() {
+        // Given
+        UserDto user = userService.createUser(new UserDto(null, "Alex", "alex@mail.ru"));
+
+        // When
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        // Then
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "users")
+                .tag("result", "hit")
+                .functionCounter();
+        assertNotNull(hits);
+        assertTrue(hits.count() > 0);
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        return statistics.getDomainDataRegionStatistics(region);
+    }
+
+    private void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.exception.InvalidStateException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+class ServiceMetricsTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    private UserDto owner;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        owner = userService.createUser(new UserDto(null, "Alex", "alex@mail.ru"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void getAllItemBookings_whenCalled_thenTimedWithState() {
+        long before = serviceCount("getAllItemBookings", "WAITING");
+
+        bookingService.getAllItemBookings(owner.getId(), "WAITING", null, null, 20);
+
+        assertEquals(before + 1, serviceCount("getAllItemBookings", "WAITING"));
+    }
+
+    @Test
+    void getAllUserBookings_whenStateUnsupported_thenTimedWithoutClientValue() {
+        assertThrows(InvalidStateException.class,
+                () -> bookingService.getAllUserBookings(owner.getId(), "UNKNOWN", null, null, 20));
+
+        assertNull(meterRegistry.find("shareit.service").tag("state", "UNKNOWN").timer());
+        Timer timer = meterRegistry.find("shareit.service")
+                .tags("method", "getAllUserBookings", "state", "UNSUPPORTED", "exception", "InvalidStateException")
+                .timer();
+        assertNotNull(timer);
+    }
+
+    @Test
+    void getAllUsers_whenCalled_thenRepositoryRowsRecorded() {
+        userService.createUser(new UserDto(null, "Kate", "kate@mail.ru"));
+
+        userService.getAllUsers();
+
+        DistributionSummary rows = meterRegistry.find("shareit.repository.rows")
+                .tags("repository", "UserRepository", "method", "findAll")
+                .summary();
+        assertNotNull(rows);
+        assertEquals(2, rows.max());
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "findAll")
+                .timer());
+    }
+
+    @Test
+    void prometheus_whenScraped_thenServiceAndRepositoryMetricsExported() throws IOException, InterruptedException {
+        userService.getUserById(owner.getId());
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("shareit_service_seconds_bucket"), "нет гистограммы сервисов");
+        assertTrue(response.body().contains("shareit_repository_rows_bucket"), "нет гистограммы строк");
+    }
+
+    private long serviceCount(String method, String state) {
+        Timer timer = meterRegistry.find("shareit.service")
+                .tags("method", method, "state", state)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static ru.practicum.shareit.config.StatementCountHeaderAdvice.BUDGET_HEADER;
+import static ru.practicum.shareit.config.StatementCountHeaderAdvice.COUNT_HEADER;
+
+/**
+ * Число SQL-запросов каждого обработчика не превышает его @StatementBudget.
+ * Данных больше, чем одна строка на ответ, а кэш второго уровня перед каждым запросом очищается,
+ * поэтому ленивая загрузка связей в цикле (N+1) выходит за бюджет.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+    private static final int ROWS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<ItemRequest> requests = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        for (int i = 0; i < ROWS; i++) {
+            User booker = userRepository.save(new User(null, "Booker " + i, "booker" + i + "@mail.ru"));
+            ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "Нужна дрель " + i, booker,
+                    now.minusDays(i + 1)));
+            Item item = itemRepository.save(new Item(null, owner, "Дрель " + i, "Ударная дрель " + i, true, request));
+            bookings.add(bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    Status.APPROVED)));
+            bookings.add(bookingRepository.save(new Booking(null, now.plusDays(i + 1), now.plusDays(i + 2), item,
+                    booker, Status.WAITING)));
+            commentRepository.save(new Comment(null, "Отличная дрель", item, booker, now.minusDays(1)));
+            bookers.add(booker);
+            items.add(item);
+            requests.add(request);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void users_whenRequested_thenWithinBudget() throws Exception {
+        assertWithinBudget(get("/users"));
+        assertWithinBudget(get("/users/{id}", owner.getId()));
+    }
+
+    @Test
+    void items_whenRequested_thenWithinBudget() throws Exception {
+        Item item = items.getFirst();
+
+        assertWithinBudget(get("/items").header("X-Sharer-User-Id", owner.getId()));
+        assertWithinBudget(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", owner.getId()));
+        assertWithinBudget(get("/items/search").param("text", "дрель")
+                .header("X-Sharer-User-Id", owner.getId()));
+        assertWithinBudget(get("/items/{id}/availability", item.getId())
+                .param("from", LocalDateTime.now().toString())
+                .param("to", LocalDateTime.now().plusDays(30).toString())
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void bookings_whenRequested_thenWithinBudget() throws Exception {
+        User booker = bookers.getFirst();
+
+        for (String state : List.of("ALL", "PAST", "FUTURE", "WAITING")) {
+            assertWithinBudget(get("/bookings/owner").param("state", state)
+                    .header("X-Sharer-User-Id", owner.getId()));
+            assertWithinBudget(get("/bookings").param("state", state)
+                    .header("X-Sharer-User-Id", booker.getId()));
+        }
+        assertWithinBudget(get("/bookings/{id}", bookings.getFirst().getId())
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void bookingChanges_whenRequested_thenWithinBudget() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(20);
+
+        assertWithinBudget(post("/bookings")
+                .header("X-Sharer-User-Id", bookers.get(1).getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\":" + items.getFirst().getId() + ",\"start\":\"" + start
+                        + "\",\"end\":\"" + start.plusDays(1) + "\"}"));
+        assertWithinBudget(patch("/bookings/{id}", bookings.get(1).getId())
+                .param("approved", "true")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void requests_whenRequested_thenWithinBudget() throws Exception {
+        User booker = bookers.getFirst();
+
+        assertWithinBudget(get("/requests").header("X-Sharer-User-Id", booker.getId()));
+        assertWithinBudget(get("/requests/all").header("X-Sharer-User-Id", owner.getId()));
+        assertWithinBudget(get("/requests/{id}", requests.getFirst().getId())
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    private void assertWithinBudget(RequestBuilder request) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        MvcResult result = mvc.perform(request).andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        String description = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+
+        String body = response.getContentAsString();
+        assertTrue(response.getStatus() < 300, () -> description + ": " + body);
+        int statements = Integer.parseInt(response.getHeader(COUNT_HEADER));
+        assertNotNull(response.getHeader(BUDGET_HEADER),
+                () -> description + ": не задан @StatementBudget, выполнено " + statements + " SQL-запросов");
+        int budget = Integer.parseInt(response.getHeader(BUDGET_HEADER));
+        assertTrue(statements <= budget,
+                () -> description + ": выполнено " + statements + " SQL-запросов при бюджете " + budget);
+    }
+
+    private void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
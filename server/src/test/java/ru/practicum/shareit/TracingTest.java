@@ -0,0 +1,158 @@
+package ru.practicum.shareit;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(metrics = false)
+class TracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @LocalServerPort
+    private int port;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        Item item = itemRepository.save(new Item(null, owner, "Дрель", "Ударная дрель", true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, Status.WAITING));
+        spanExporter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void ownerBookings_whenTraceparentSent_thenServiceAndSqlSpansContinueTrace() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/owner?state=ALL"))
+                        .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01")
+                        .header("X-Sharer-User-Id", String.valueOf(owner.getId()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+
+        List<SpanData> spans = awaitServerSpan();
+        Map<String, SpanData> byId = spans.stream()
+                .collect(Collectors.toMap(SpanData::getSpanId, Function.identity()));
+
+        SpanData server = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.SERVER)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(PARENT_SPAN_ID, server.getParentSpanId());
+
+        SpanData service = spans.stream()
+                .filter(span -> span.getName().equals("BookingServiceImpl.getAllItemBookings"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("нет спана сервиса: " + spans));
+        assertEquals(server.getSpanId(), service.getParentSpanId());
+
+        List<SpanData> queries = spans.stream()
+                .filter(span -> span.getName().equals("query"))
+                .toList();
+        assertFalse(queries.isEmpty(), () -> "нет спанов SQL-запросов: " + spans);
+        assertTrue(queries.stream().allMatch(query -> hasAncestor(query, service, byId)),
+                "SQL-запросы должны быть внутри спана сервиса");
+    }
+
+    private List<SpanData> awaitServerSpan() throws InterruptedException {
+        // серверный спан закрывается после отправки ответа, поэтому может появиться чуть позже
+        for (int attempt = 0; attempt < 50; attempt++) {
+            tracerProvider.forceFlush().join(1, TimeUnit.SECONDS);
+            List<SpanData> spans = spanExporter.getFinishedSpanItems().stream()
+                    .filter(span -> span.getTraceId().equals(TRACE_ID))
+                    .toList();
+            if (spans.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER)) {
+                return spans;
+            }
+            Thread.sleep(100);
+        }
+        return fail("серверный спан не экспортирован");
+    }
+
+    private static boolean hasAncestor(SpanData span, SpanData ancestor, Map<String, SpanData> byId) {
+        SpanData current = byId.get(span.getParentSpanId());
+        while (current != null) {
+            if (current.getSpanId().equals(ancestor.getSpanId())) {
+                return true;
+            }
+            current = byId.get(current.getParentSpanId());
+        }
+        return false;
+    }
+
+    private void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
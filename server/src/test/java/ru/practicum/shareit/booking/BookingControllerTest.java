@@ -5,10 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.exception.InvalidPageException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -133,8 +136,8 @@ class BookingControllerTest {
 
     @Test
     void getAllUserBookings_whenValidWithState_thenReturnListOfBookings() throws Exception {
-        when(bookingService.getAllUserBookings(userId, "WAITING"))
-                .thenReturn(List.of(bookingOutDto));
+        when(bookingService.getAllUserBookings(userId, "WAITING", null, null, 20))
+                .thenReturn(Window.from(List.of(bookingOutDto), ScrollPosition::offset));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -147,21 +150,22 @@ class BookingControllerTest {
 
     @Test
     void getAllUserBookings_whenValidWithDefaultState_thenReturnListOfBookings() throws Exception {
-        when(bookingService.getAllUserBookings(userId, "ALL"))
-                .thenReturn(List.of(bookingOutDto));
+        when(bookingService.getAllUserBookings(userId, "ALL", null, null, 20))
+                .thenReturn(Window.from(List.of(bookingOutDto), ScrollPosition::offset));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-More", "false"))
                 .andExpect(jsonPath("$[0].id", is(bookingOutDto.getId()), Long.class));
     }
 
 
     @Test
     void getAllUserBookings_whenEmptyList_thenReturnEmptyArray() throws Exception {
-        when(bookingService.getAllUserBookings(userId, "ALL"))
-                .thenReturn(List.of());
+        when(bookingService.getAllUserBookings(userId, "ALL", null, null, 20))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -171,10 +175,23 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.length()", is(0)));
     }
 
+    @Test
+    void getAllUserBookings_whenSizeInvalid_thenBadRequest() throws Exception {
+        when(bookingService.getAllUserBookings(userId, "ALL", null, null, 0))
+                .thenThrow(new InvalidPageException("Размер страницы должен быть от 1 до 100"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Размер страницы должен быть от 1 до 100")));
+    }
+
     @Test
     void getAllItemBookings_whenValidWithState_thenReturnListOfBookings() throws Exception {
-        when(bookingService.getAllItemBookings(userId, "CURRENT"))
-                .thenReturn(List.of(bookingOutDto));
+        when(bookingService.getAllItemBookings(userId, "CURRENT", null, null, 20))
+                .thenReturn(Window.from(List.of(bookingOutDto), ScrollPosition::offset));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -184,10 +201,22 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id", is(bookingOutDto.getId()), Long.class));
     }
 
+    @Test
+    void getAllItemBookings_whenMoreBookingsThanPage_thenHasMoreHeaderTrue() throws Exception {
+        when(bookingService.getAllItemBookings(userId, "ALL", null, null, 20))
+                .thenReturn(Window.from(List.of(bookingOutDto), ScrollPosition::offset, true));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-More", "true"));
+    }
+
     @Test
     void getAllItemBookings_whenValidWithDefaultState_thenReturnListOfBookings() throws Exception {
-        when(bookingService.getAllItemBookings(userId, "ALL"))
-                .thenReturn(List.of(bookingOutDto));
+        when(bookingService.getAllItemBookings(userId, "ALL", null, null, 20))
+                .thenReturn(Window.from(List.of(bookingOutDto), ScrollPosition::offset));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -198,8 +227,8 @@ class BookingControllerTest {
 
     @Test
     void getAllItemBookings_whenEmptyList_thenReturnEmptyArray() throws Exception {
-        when(bookingService.getAllItemBookings(userId, "ALL"))
-                .thenReturn(List.of());
+        when(bookingService.getAllItemBookings(userId, "ALL", null, null, 20))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -221,8 +250,8 @@ class BookingControllerTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingService.getAllUserBookings(userId, "PAST"))
-                .thenReturn(List.of(pastBooking));
+        when(bookingService.getAllUserBookings(userId, "PAST", null, null, 20))
+                .thenReturn(Window.from(List.of(pastBooking), ScrollPosition::offset));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -243,8 +272,8 @@ class BookingControllerTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingService.getAllItemBookings(userId, "FUTURE"))
-                .thenReturn(List.of(futureBooking));
+        when(bookingService.getAllItemBookings(userId, "FUTURE", null, null, 20))
+                .thenReturn(Window.from(List.of(futureBooking), ScrollPosition::offset));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -254,4 +283,20 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id", is(3L), Long.class));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void getAllItemBookings_whenCursorGiven_thenPassCursorToService() throws Exception {
+        LocalDateTime afterStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(bookingService.getAllItemBookings(userId, "ALL", afterStart, 5L, 10))
+                .thenReturn(Window.from(List.of(bookingOutDto), ScrollPosition::offset));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("afterStart", "2030-01-01T12:00:00")
+                        .param("afterId", "5")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(bookingOutDto.getId()), Long.class));
+    }
+}
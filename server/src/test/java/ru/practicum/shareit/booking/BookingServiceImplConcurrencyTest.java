@@ -0,0 +1,185 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class BookingServiceImplConcurrencyTest {
+    private static final int BOOKERS = 20;
+    private static final int SLOTS = 10;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> bookers = new ArrayList<>();
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        item = itemRepository.save(new Item(null, owner, "Дрель", "Простая дрель", true, null));
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(new User(null, "Booker " + i, "booker" + i + "@mail.ru")));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approveBooking_whenOwnerApprovesCompetingRequests_thenEachSlotApprovedOnce() throws Exception {
+        // Given - каждый пользователь просит каждый слот, владелец пытается подтвердить все запросы сразу
+        Long ownerId = item.getOwner().getId();
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Callable<Long>> creations = new ArrayList<>();
+        for (User booker : bookers) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                LocalDateTime start = base.plusDays(slot);
+                BookingInDto request = new BookingInDto(start, start.plusDays(1), item.getId());
+                creations.add(() -> bookingService.createBooking(booker.getId(), request).getId());
+            }
+        }
+        Outcome<Long> created = runConcurrently(creations);
+        List<Callable<Long>> approvals = new ArrayList<>();
+        for (Long bookingId : created.results()) {
+            approvals.add(() -> bookingService.approveBooking(ownerId, bookingId, true).getId());
+        }
+
+        // When
+        Outcome<Long> approved = runConcurrently(approvals);
+
+        // Then
+        log.info("Пропускная способность при конкуренции за вещь, операций/с: createBooking {}, approveBooking {}",
+                created.opsPerSecond(), approved.opsPerSecond());
+        assertEquals(List.of(), created.failures());
+        assertEquals(BOOKERS * SLOTS, created.results().size());
+        assertEquals(List.of(), approved.failures());
+        assertEquals(SLOTS, approved.results().size());
+        assertEquals(BOOKERS * SLOTS - SLOTS, approved.rejected());
+
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .toList());
+        bookings.sort((a, b) -> a.getStart().compareTo(b.getStart()));
+        assertEquals(SLOTS, bookings.size());
+        for (int i = 1; i < bookings.size(); i++) {
+            assertFalse(bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()));
+        }
+    }
+
+    @Test
+    void approveBooking_whenPeriodOverlapsApproved_thenRejectedUntilApprovedRejected() {
+        // Given - два пересекающихся запроса ожидают подтверждения
+        Long ownerId = item.getOwner().getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Long firstId = bookingService.createBooking(bookers.get(0).getId(),
+                new BookingInDto(start, start.plusDays(2), item.getId())).getId();
+        BookingInDto overlapping = new BookingInDto(start.plusDays(1), start.plusDays(3), item.getId());
+        Long secondId = bookingService.createBooking(bookers.get(1).getId(), overlapping).getId();
+
+        // When & Then
+        bookingService.approveBooking(ownerId, firstId, true);
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(bookers.get(2).getId(), overlapping));
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approveBooking(ownerId, secondId, true));
+        bookingService.approveBooking(ownerId, firstId, false);
+        assertEquals(Status.APPROVED, bookingService.approveBooking(ownerId, secondId, true).getStatus());
+    }
+
+    @Test
+    void createBooking_whenPeriodsOnlyTouch_thenBothCreated() {
+        // Given
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        // When
+        bookingService.createBooking(bookers.get(0).getId(), new BookingInDto(start, start.plusDays(1), item.getId()));
+        bookingService.createBooking(bookers.get(1).getId(),
+                new BookingInDto(start.plusDays(1), start.plusDays(2), item.getId()));
+
+        // Then
+        assertEquals(2, bookingRepository.findAll().size());
+    }
+
+    /**
+     * Запускает вызовы одновременно на виртуальных потоках и замеряет общее время.
+     * BookingOverlapException считается ожидаемым отказом, остальные исключения — сбоями.
+     */
+    private static <T> Outcome<T> runConcurrently(List<Callable<T>> calls) throws Exception {
+        List<T> results = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long startedAt;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Callable<T> call : calls) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        results.add(call.call());
+                    } catch (BookingOverlapException e) {
+                        rejected.incrementAndGet();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                    return null;
+                }));
+            }
+            startedAt = System.nanoTime();
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        long elapsed = Math.max(System.nanoTime() - startedAt, 1);
+        return new Outcome<>(List.copyOf(results), rejected.get(), List.copyOf(failures),
+                String.format(Locale.ROOT, "%.1f", calls.size() * 1e9 / elapsed));
+    }
+
+    private record Outcome<T>(List<T> results, int rejected, List<Throwable> failures, String opsPerSecond) {
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class BookingServiceImplIntegrationTest {
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingTimelineCache bookingTimelineCache;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking first;
+    private Booking second;
+    private Booking third;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        item = itemRepository.save(new Item(null, owner, "Дрель", "Простая дрель", true, null));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        first = bookingRepository.save(new Booking(null, start, start.plusHours(1), item, booker, Status.WAITING));
+        second = bookingRepository.save(new Booking(null, start, start.plusHours(2), item, booker, Status.WAITING));
+        third = bookingRepository.save(new Booking(null, start.plusDays(1), start.plusDays(2), item, booker,
+                Status.APPROVED));
+    }
+
+    @Test
+    void getAllUserBookings_whenPagedWithCursor_thenReturnAllBookingsOnce() {
+        // When
+        Window<BookingOutDto> firstPage = bookingService.getAllUserBookings(booker.getId(), "ALL", null, null, 2);
+        BookingOutDto last = firstPage.getContent().get(firstPage.size() - 1);
+        Window<BookingOutDto> secondPage = bookingService.getAllUserBookings(booker.getId(), "ALL",
+                last.getStart(), last.getId(), 2);
+
+        // Then
+        assertEquals(List.of(third.getId(), second.getId()), ids(firstPage.getContent()));
+        assertTrue(firstPage.hasNext());
+        assertEquals(List.of(first.getId()), ids(secondPage.getContent()));
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    void getAllItemBookings_whenPagedWithState_thenCursorRespectsFilter() {
+        // When
+        List<BookingOutDto> firstPage = bookingService.getAllItemBookings(owner.getId(), "WAITING", null, null, 1).getContent();
+        BookingOutDto last = firstPage.get(0);
+        List<BookingOutDto> secondPage = bookingService.getAllItemBookings(owner.getId(), "WAITING",
+                last.getStart(), last.getId(), 1).getContent();
+        List<BookingOutDto> thirdPage = bookingService.getAllItemBookings(owner.getId(), "WAITING",
+                secondPage.get(0).getStart(), secondPage.get(0).getId(), 1).getContent();
+
+        // Then
+        assertEquals(List.of(second.getId()), ids(firstPage));
+        assertEquals(List.of(first.getId()), ids(secondPage));
+        assertTrue(thirdPage.isEmpty());
+    }
+
+    @Test
+    void approveBooking_whenCachedTimelineIsStale_thenDatabaseDecides() {
+        // Given - расписание вещи в кэше, затем подтверждённое бронирование удалено в обход сервиса,
+        // как на другом экземпляре
+        bookingTimelineCache.busyPeriods(item.getId(), third.getStart(), third.getEnd());
+        bookingRepository.delete(third);
+        BookingOutDto created = bookingService.createBooking(booker.getId(),
+                new BookingInDto(third.getStart(), third.getEnd(), item.getId()));
+
+        // When
+        BookingOutDto approved = bookingService.approveBooking(owner.getId(), created.getId(), true);
+
+        // Then
+        assertEquals(Status.APPROVED, approved.getStatus());
+    }
+
+    private List<Long> ids(List<BookingOutDto> bookings) {
+        return bookings.stream().map(BookingOutDto::getId).toList();
+    }
+}
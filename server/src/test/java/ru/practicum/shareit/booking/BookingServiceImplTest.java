@@ -5,17 +5,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +44,12 @@ class BookingServiceImplTest {
     @Mock
     private BookingMapper mapper;
 
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private UserExistenceService userExistenceService;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -46,6 +59,9 @@ class BookingServiceImplTest {
     private final Long itemId = 10L;
     private final LocalDateTime start = LocalDateTime.now().plusDays(1);
     private final LocalDateTime end = LocalDateTime.now().plusDays(2);
+    private final Integer size = 20;
+    private final ScrollPosition position = ScrollPosition.keyset();
+    private final Limit limit = Limit.of(size);
 
     private final User user = new User(userId, "Alex", "alex@mail.ru");
     private final User owner = new User(ownerId, "Owner", "owner@mail.ru");
@@ -79,7 +95,22 @@ class BookingServiceImplTest {
         assertEquals(user, booking.getBooker());
         verify(itemRepository).findById(itemId);
         verify(userRepository).findById(userId);
+        verify(itemRepository, never()).lockById(any());
         verify(bookingRepository).save(booking);
+        verify(bookingTimelineCache, never()).add(any());
+    }
+
+    @Test
+    void createBooking_whenApprovedBookingOverlaps_thenThrowBookingOverlapException() {
+        // Given
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(availableItem));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingRepository.existsOverlapping(itemId, Status.ACTIVE, start, end)).thenReturn(true);
+
+        // When & Then
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(userId, bookingInDto));
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -152,7 +183,23 @@ class BookingServiceImplTest {
         assertEquals(Status.APPROVED, result.getStatus());
         assertEquals(Status.APPROVED, booking.getStatus());
         verify(bookingRepository).findById(bookingId);
+        verify(itemRepository).lockById(itemId);
+        verify(bookingRepository).existsOverlapping(itemId, Status.ACTIVE, start, end);
         verify(bookingRepository).save(booking);
+        verify(bookingTimelineCache).add(approvedBooking);
+    }
+
+    @Test
+    void approveBooking_whenConstraintViolated_thenThrowBookingOverlapException() {
+        // Given
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(booking)).thenReturn(booking);
+        doThrow(new DataIntegrityViolationException("excl_bookings_item_period")).when(bookingRepository).flush();
+
+        // When & Then
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approveBooking(ownerId, bookingId, true));
+        verify(bookingTimelineCache, never()).add(any());
     }
 
     @Test
@@ -172,6 +219,22 @@ class BookingServiceImplTest {
         assertNotNull(result);
         assertEquals(Status.REJECTED, result.getStatus());
         assertEquals(Status.REJECTED, booking.getStatus());
+        verify(itemRepository, never()).lockById(any());
+        verify(bookingTimelineCache, never()).remove(any());
+    }
+
+    @Test
+    void approveBooking_whenRejectedApprovedAgainAndPeriodTaken_thenThrowBookingOverlapException() {
+        // Given
+        booking.setStatus(Status.REJECTED);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlapping(itemId, Status.ACTIVE, start, end)).thenReturn(true);
+
+        // When & Then
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approveBooking(ownerId, bookingId, true));
+        assertEquals(Status.REJECTED, booking.getStatus());
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -217,7 +280,6 @@ class BookingServiceImplTest {
     @Test
     void getBookingById_whenValidBooker_thenReturnBooking() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
@@ -227,14 +289,13 @@ class BookingServiceImplTest {
         // Then
         assertNotNull(result);
         assertEquals(bookingOutDto, result);
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verify(bookingRepository).findById(bookingId);
     }
 
     @Test
     void getBookingById_whenValidOwner_thenReturnBooking() {
         // Given
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
@@ -249,7 +310,8 @@ class BookingServiceImplTest {
     @Test
     void getBookingById_whenUserNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -261,7 +323,6 @@ class BookingServiceImplTest {
     @Test
     void getBookingById_whenBookingNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
         // When & Then
@@ -274,7 +335,6 @@ class BookingServiceImplTest {
     void getBookingById_whenNotBookerOrOwner_thenThrowValidationException() {
         // Given
         User otherUser = new User(999L, "Other", "other@mail.ru");
-        when(userRepository.findById(999L)).thenReturn(Optional.of(otherUser));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
         // When & Then
@@ -287,118 +347,111 @@ class BookingServiceImplTest {
     @Test
     void getAllUserBookings_whenStateAll_thenReturnAllBookings() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerId(userId, BookingServiceImpl.sort)).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerId(userId, position, limit, BookingServiceImpl.sort)).thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "ALL");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "ALL", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByBookerId(userId, BookingServiceImpl.sort);
+        verify(bookingRepository).findAllByBookerId(userId, position, limit, BookingServiceImpl.sort);
     }
 
     @Test
     void getAllUserBookings_whenStateCurrent_thenReturnCurrentBookings() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(
-                eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq(BookingServiceImpl.sort)))
-                .thenReturn(List.of(booking));
+                eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort)))
+                .thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "CURRENT");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "CURRENT", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(bookingRepository).findAllByBookerIdAndStartIsBeforeAndEndIsAfter(
-                eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq(BookingServiceImpl.sort));
+                eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort));
     }
 
     @Test
     void getAllUserBookings_whenStatePast_thenReturnPastBookings() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findAllByBookerIdAndEndIsBefore(
-                eq(userId), any(LocalDateTime.class), eq(BookingServiceImpl.sort)))
-                .thenReturn(List.of(booking));
+                eq(userId), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort)))
+                .thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "PAST");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "PAST", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(bookingRepository).findAllByBookerIdAndEndIsBefore(
-                eq(userId), any(LocalDateTime.class), eq(BookingServiceImpl.sort));
+                eq(userId), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort));
     }
 
     @Test
     void getAllUserBookings_whenStateFuture_thenReturnFutureBookings() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findAllByBookerIdAndStartIsAfter(
-                eq(userId), any(LocalDateTime.class), eq(BookingServiceImpl.sort)))
-                .thenReturn(List.of(booking));
+                eq(userId), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort)))
+                .thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "FUTURE");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "FUTURE", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(bookingRepository).findAllByBookerIdAndStartIsAfter(
-                eq(userId), any(LocalDateTime.class), eq(BookingServiceImpl.sort));
+                eq(userId), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort));
     }
 
     @Test
     void getAllUserBookings_whenStateWaiting_thenReturnWaitingBookings() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, BookingServiceImpl.sort))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, position, limit, BookingServiceImpl.sort))
+                .thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "WAITING");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "WAITING", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByBookerIdAndStatus(userId, Status.WAITING, BookingServiceImpl.sort);
+        verify(bookingRepository).findAllByBookerIdAndStatus(userId, Status.WAITING, position, limit, BookingServiceImpl.sort);
     }
 
     @Test
     void getAllUserBookings_whenStateRejected_thenReturnRejectedBookings() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, BookingServiceImpl.sort))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED, position, limit, BookingServiceImpl.sort))
+                .thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "REJECTED");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "REJECTED", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByBookerIdAndStatus(userId, Status.REJECTED, BookingServiceImpl.sort);
+        verify(bookingRepository).findAllByBookerIdAndStatus(userId, Status.REJECTED, position, limit, BookingServiceImpl.sort);
     }
 
     @Test
     void getAllUserBookings_whenEmptyList_thenReturnEmptyList() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerId(userId, BookingServiceImpl.sort)).thenReturn(List.of());
+        when(bookingRepository.findAllByBookerId(userId, position, limit, BookingServiceImpl.sort)).thenReturn(window());
 
         // When
-        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "ALL");
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "ALL", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
@@ -408,72 +461,109 @@ class BookingServiceImplTest {
     @Test
     void getAllUserBookings_whenUserNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> bookingService.getAllUserBookings(userId, "ALL"));
+                () -> bookingService.getAllUserBookings(userId, "ALL", null, null, size));
         assertEquals("Пользователь с данным id не найден", exception.getMessage());
-        verify(bookingRepository, never()).findAllByBookerId(any(), any());
+        verify(bookingRepository, never()).findAllByBookerId(any(), any(), any(), any());
     }
 
     @Test
     void getAllItemBookings_whenStateAll_thenReturnAllBookings() {
         // Given
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerId(ownerId, BookingServiceImpl.sort)).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerId(ownerId, position, limit, BookingServiceImpl.sort)).thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllItemBookings(ownerId, "ALL");
+        List<BookingOutDto> result = bookingService.getAllItemBookings(ownerId, "ALL", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByItemOwnerId(ownerId, BookingServiceImpl.sort);
+        verify(bookingRepository).findAllByItemOwnerId(ownerId, position, limit, BookingServiceImpl.sort);
     }
 
     @Test
     void getAllItemBookings_whenStateCurrent_thenReturnCurrentBookings() {
         // Given
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
-                eq(ownerId), any(LocalDateTime.class), any(LocalDateTime.class), eq(BookingServiceImpl.sort)))
-                .thenReturn(List.of(booking));
+                eq(ownerId), any(LocalDateTime.class), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort)))
+                .thenReturn(window(booking));
         when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
 
         // When
-        List<BookingOutDto> result = bookingService.getAllItemBookings(ownerId, "CURRENT");
+        List<BookingOutDto> result = bookingService.getAllItemBookings(ownerId, "CURRENT", null, null, size).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(bookingRepository).findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
-                eq(ownerId), any(LocalDateTime.class), any(LocalDateTime.class), eq(BookingServiceImpl.sort));
+                eq(ownerId), any(LocalDateTime.class), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort));
     }
 
     @Test
     void getAllItemBookings_whenDifferentStates_thenCallCorrectRepositoryMethods() {
         // Given
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(any(), any(), any())).thenReturn(List.of());
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(any(), any(), any())).thenReturn(List.of());
-        when(bookingRepository.findAllByItemOwnerIdAndStatus(any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(any(), any(), any(), any(), any())).thenReturn(window());
+        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(any(), any(), any(), any(), any())).thenReturn(window());
+        when(bookingRepository.findAllByItemOwnerIdAndStatus(any(), any(), any(), any(), any())).thenReturn(window());
 
         // When - тестируем разные состояния
-        bookingService.getAllItemBookings(ownerId, "PAST");
-        bookingService.getAllItemBookings(ownerId, "FUTURE");
-        bookingService.getAllItemBookings(ownerId, "WAITING");
-        bookingService.getAllItemBookings(ownerId, "REJECTED");
+        bookingService.getAllItemBookings(ownerId, "PAST", null, null, size);
+        bookingService.getAllItemBookings(ownerId, "FUTURE", null, null, size);
+        bookingService.getAllItemBookings(ownerId, "WAITING", null, null, size);
+        bookingService.getAllItemBookings(ownerId, "REJECTED", null, null, size);
 
         // Then - проверяем что вызывались правильные методы
         verify(bookingRepository).findAllByItemOwnerIdAndEndIsBefore(
-                eq(ownerId), any(LocalDateTime.class), eq(BookingServiceImpl.sort));
+                eq(ownerId), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort));
         verify(bookingRepository).findAllByItemOwnerIdAndStartIsAfter(
-                eq(ownerId), any(LocalDateTime.class), eq(BookingServiceImpl.sort));
+                eq(ownerId), any(LocalDateTime.class), eq(position), eq(limit), eq(BookingServiceImpl.sort));
         verify(bookingRepository).findAllByItemOwnerIdAndStatus(
-                eq(ownerId), eq(Status.WAITING), eq(BookingServiceImpl.sort));
+                eq(ownerId), eq(Status.WAITING), eq(position), eq(limit), eq(BookingServiceImpl.sort));
         verify(bookingRepository).findAllByItemOwnerIdAndStatus(
-                eq(ownerId), eq(Status.REJECTED), eq(BookingServiceImpl.sort));
+                eq(ownerId), eq(Status.REJECTED), eq(position), eq(limit), eq(BookingServiceImpl.sort));
+    }
+
+    @Test
+    void getAllUserBookings_whenCursorGiven_thenContinueAfterCursor() {
+        // Given
+        ScrollPosition after = ScrollPosition.forward(Map.of("start", start, "id", bookingId));
+        when(bookingRepository.findAllByBookerId(userId, after, Limit.of(1), BookingServiceImpl.sort))
+                .thenReturn(window(booking));
+        when(mapper.toBookingOutDto(booking)).thenReturn(bookingOutDto);
+
+        // When
+        List<BookingOutDto> result = bookingService.getAllUserBookings(userId, "ALL", start, bookingId, 1).getContent();
+
+        // Then
+        assertEquals(List.of(bookingOutDto), result);
+    }
+
+    @Test
+    void getAllItemBookings_whenCursorIncomplete_thenThrowInvalidPageException() {
+        // Given
+
+        // When & Then
+        assertThrows(InvalidPageException.class,
+                () -> bookingService.getAllItemBookings(ownerId, "ALL", start, null, size));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void getAllUserBookings_whenSizeOutOfRange_thenThrowInvalidPageException() {
+        // When & Then
+        assertThrows(InvalidPageException.class,
+                () -> bookingService.getAllUserBookings(userId, "ALL", null, null, 0));
+        assertThrows(InvalidPageException.class,
+                () -> bookingService.getAllUserBookings(userId, "ALL", null, null, 101));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private Window<Booking> window(Booking... bookings) {
+        return Window.from(List.of(bookings), ScrollPosition::offset);
     }
-}
\ No newline at end of file
+}
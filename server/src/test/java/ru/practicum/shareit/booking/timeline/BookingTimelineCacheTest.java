@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingTimelineCacheTest {
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final BookingTimelineCache cache = new BookingTimelineCache(bookingRepository, 100,
+            Duration.ofSeconds(30), nanos::get);
+
+    private final Item item = new Item(1L, null, "Дрель", "Простая дрель", true, null);
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+    private final Booking booking = new Booking(10L, start, start.plusDays(1), item, null, Status.APPROVED);
+
+    @Test
+    void remove_whenCommittedDuringLoad_thenAppliedToLoadedTimeline() throws Exception {
+        // Given - загрузка прочитала бронирование до того, как его отклонили
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(eq(1L), eq(Status.ACTIVE), any()))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(booking);
+                });
+        CompletableFuture<Void> load = CompletableFuture.runAsync(() -> cache.busyPeriods(1L, start, start.plusDays(1)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When - отклонение фиксируется, пока загрузка не завершилась
+        CompletableFuture<Void> remove = CompletableFuture.runAsync(() -> cache.remove(booking));
+        Thread.sleep(100);
+        release.countDown();
+        load.get(5, TimeUnit.SECONDS);
+        remove.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(cache.busyPeriods(1L, start, start.plusDays(1)).isEmpty());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndIsAfter(any(), any(), any());
+    }
+
+    @Test
+    void add_whenTimelineNotLoaded_thenLoadedFromDatabaseLater() {
+        // Given
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(eq(1L), eq(Status.ACTIVE), any()))
+                .thenReturn(List.of(booking));
+
+        // When
+        cache.add(booking);
+
+        // Then
+        assertEquals(1, cache.busyPeriods(1L, start, start.plusDays(1)).size());
+    }
+
+    @Test
+    void busyPeriods_whenTtlPassedSinceLoad_thenReloadedEvenIfUpdatedLocally() {
+        // Given - бронирование отменено на другом экземпляре, а здесь расписание только дополнялось
+        Booking other = new Booking(11L, start.plusDays(5), start.plusDays(6), item, null, Status.APPROVED);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndIsAfter(eq(1L), eq(Status.ACTIVE), any()))
+                .thenReturn(List.of(booking))
+                .thenReturn(List.of(other));
+        assertEquals(1, cache.busyPeriods(1L, start, start.plusDays(1)).size());
+        nanos.addAndGet(Duration.ofSeconds(20).toNanos());
+        cache.add(other);
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        // Then
+        assertTrue(cache.busyPeriods(1L, start, start.plusDays(1)).isEmpty());
+        assertEquals(1, cache.busyPeriods(1L, start.plusDays(5), start.plusDays(6)).size());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalSetTest {
+
+    @Test
+    void overlaps_whenLongIntervalStartsEarly_thenFoundThroughPrefixMax() {
+        // Given - длинный интервал начинается раньше коротких и перекрывает их все
+        IntervalSet set = IntervalSet.EMPTY
+                .with(1, 0, 100)
+                .with(2, 10, 20)
+                .with(3, 30, 40);
+
+        // When & Then
+        assertTrue(set.overlaps(50, 60));
+        assertFalse(set.without(1).overlaps(50, 60));
+    }
+
+    @Test
+    void overlaps_whenIntervalsOnlyTouch_thenNoOverlap() {
+        // Given
+        IntervalSet set = IntervalSet.EMPTY.with(1, 10, 20);
+
+        // When & Then
+        assertFalse(set.overlaps(0, 10));
+        assertFalse(set.overlaps(20, 30));
+        assertTrue(set.overlaps(19, 21));
+        assertTrue(set.overlaps(0, 30));
+    }
+
+    @Test
+    void with_whenSameIdAddedAgain_thenIntervalReplaced() {
+        // Given
+        IntervalSet set = IntervalSet.EMPTY.with(1, 10, 20).with(1, 50, 60);
+
+        // When & Then
+        assertEquals(1, set.size());
+        assertFalse(set.overlaps(10, 20));
+        assertTrue(set.overlaps(55, 56));
+    }
+
+    @Test
+    void withoutEndedBefore_whenIntervalsExpired_thenRemoved() {
+        // Given
+        IntervalSet set = IntervalSet.EMPTY.with(1, 0, 10).with(2, 5, 30);
+
+        // When
+        IntervalSet pruned = set.withoutEndedBefore(20);
+
+        // Then
+        assertEquals(1, pruned.size());
+        assertTrue(pruned.overlaps(25, 26));
+        assertSame(pruned, pruned.withoutEndedBefore(20));
+    }
+
+    @Test
+    void busy_whenIntervalsOverlapAndCrossWindow_thenMergedAndClipped() {
+        // Given
+        IntervalSet set = IntervalSet.EMPTY
+                .with(1, 0, 15)
+                .with(2, 10, 30)
+                .with(3, 20, 25)
+                .with(4, 40, 50)
+                .with(5, 50, 60)
+                .with(6, 90, 100);
+
+        // When
+        long[] busy = set.busy(12, 55);
+
+        // Then
+        assertArrayEquals(new long[]{12, 30, 40, 55}, busy);
+        assertArrayEquals(new long[0], set.busy(60, 90));
+    }
+}
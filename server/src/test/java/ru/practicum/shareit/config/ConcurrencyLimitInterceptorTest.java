@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+    private final ConcurrencyLimitInterceptor interceptor =
+            new ConcurrencyLimitInterceptor(1, Duration.ofMillis(10));
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void preHandle_whenLimitReached_thenServiceUnavailable() throws InterruptedException {
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(request, response, new Object()));
+    }
+
+    @Test
+    void preHandle_whenPreviousRequestCompleted_thenPermitReturned() throws InterruptedException {
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+    }
+
+    @Test
+    void preHandle_whenAsyncRequestStillRunning_thenPermitHeldUntilAsyncCompleted() throws InterruptedException {
+        request.setAsyncSupported(true);
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        request.startAsync();
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        interceptor.afterCompletion(request, response, new Object(), null);
+        request.getAsyncContext().complete();
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+    }
+}
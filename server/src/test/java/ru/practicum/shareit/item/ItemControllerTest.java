@@ -7,8 +7,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.PeriodDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDatesDto;
 
@@ -31,6 +34,9 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImporter itemImporter;
+
     @Autowired
     private MockMvc mvc;
 
@@ -110,6 +116,32 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.comments[0].text", is(commentDto.getText())));
     }
 
+    @Test
+    void getAvailability_whenValid_thenReturnBusyAndFreePeriods() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(List.of(new PeriodDto(from.plusDays(1), from.plusDays(2))))
+                .free(List.of(new PeriodDto(from, from.plusDays(1)), new PeriodDto(from.plusDays(2), to)))
+                .build();
+        when(itemService.getAvailability(itemId, from, to))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/{id}/availability", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-04T00:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(itemId), Long.class))
+                .andExpect(jsonPath("$.busy[0].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$.free.length()", is(2)))
+                .andExpect(jsonPath("$.free[1].end", is("2030-01-04T00:00:00")));
+    }
+
     @Test
     void createItem_whenValid_thenReturnItemDto() throws Exception {
         when(itemService.createItem(anyLong(), any(ItemDto.class)))
@@ -268,4 +300,23 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.comments").isArray())
                 .andExpect(jsonPath("$.comments.length()", is(0)));
     }
+
+    @Test
+    void importItems_whenNdjson_thenStreamImporterResults() throws Exception {
+        String body = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n";
+        when(itemImporter.importItems(eq(userId), any()))
+                .thenReturn(out -> out.write("{\"row\":1,\"id\":1}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(body)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"row\":1,\"id\":1}\n"));
+    }
 }
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(properties = "shareit.items.import.batch-size=2")
+class ItemImporterIntegrationTest {
+    @Autowired
+    private ItemImporter itemImporter;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner" + System.nanoTime() + "@mail.ru"));
+    }
+
+    @Test
+    void importItems_whenJsonArray_thenValidRowsSavedAndInvalidReported() throws IOException {
+        // Given
+        ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "Нужна дрель", owner,
+                LocalDateTime.now()));
+        String body = "["
+                + "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true,\"requestId\":"
+                + request.getId() + "},"
+                + "{\"description\":\"Без названия\",\"available\":true},"
+                + "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":\"да\"},"
+                + "{\"name\":\"Молоток\",\"description\":\"Обычный\",\"available\":false,\"requestId\":-1},"
+                + "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":true}"
+                + "]";
+
+        // When
+        List<ItemImportResultDto> results = importItems(body);
+
+        // Then
+        assertEquals(List.of(1, 2, 3, 4, 5), results.stream().map(ItemImportResultDto::getRow).toList());
+        assertNotNull(results.get(0).getId());
+        assertEquals("Необходимо указать название вещи", results.get(1).getError());
+        assertTrue(results.get(2).getError().startsWith("Некорректные данные вещи"));
+        assertEquals("Запрос с данным id не найден", results.get(3).getError());
+        assertNotNull(results.get(4).getId());
+
+        List<Item> items = itemRepository.findAllByOwnerId(owner.getId());
+        assertEquals(List.of("Дрель", "Лестница"), items.stream().map(Item::getName).sorted().toList());
+        assertEquals(request.getId(), itemRepository.findById(results.get(0).getId()).orElseThrow()
+                .getRequest().getId());
+    }
+
+    @Test
+    void importItems_whenNdjson_thenAllRowsSavedInBatches() throws IOException {
+        // Given
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            body.append("{\"name\":\"Вещь ").append(i).append("\",\"description\":\"Описание\",\"available\":true}\n");
+        }
+
+        // When
+        List<ItemImportResultDto> results = importItems(body.toString());
+
+        // Then
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getId() != null && result.getError() == null));
+        assertEquals(5, itemRepository.findAllByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    void importItems_whenMalformedJson_thenPreviousRowsSavedAndErrorReported() throws IOException {
+        // Given
+        String body = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":";
+
+        // When
+        List<ItemImportResultDto> results = importItems(body);
+
+        // Then
+        assertEquals(2, results.size());
+        assertNotNull(results.get(0).getId());
+        assertEquals(2, results.get(1).getRow());
+        assertTrue(results.get(1).getError().startsWith("Некорректный JSON"));
+        assertEquals(1, itemRepository.findAllByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importItems_whenBatchFailsInDatabase_thenBatchRowsReportedAndImportContinues() throws IOException {
+        // Given - название длиннее столбца, БД отклоняет вторую пачку целиком
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            String name = i == 4 ? "Вещь".repeat(100) : "Вещь " + i;
+            body.append("{\"name\":\"").append(name).append("\",\"description\":\"Описание\",\"available\":true}\n");
+        }
+
+        // When
+        List<ItemImportResultDto> results = importItems(body.toString());
+
+        // Then
+        assertEquals(List.of(1, 2, 3, 4, 5), results.stream().map(ItemImportResultDto::getRow).toList());
+        assertNotNull(results.get(0).getId());
+        assertNotNull(results.get(1).getId());
+        assertEquals("Не удалось сохранить вещь", results.get(2).getError());
+        assertEquals("Не удалось сохранить вещь", results.get(3).getError());
+        assertNotNull(results.get(4).getId());
+        List<Item> items = itemRepository.findAllByOwnerId(owner.getId());
+        assertEquals(List.of("Вещь 1", "Вещь 2", "Вещь 5"), items.stream().map(Item::getName).sorted().toList());
+
+        itemRepository.deleteAll(items);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void importItems_whenUserNotFound_thenThrowNotFoundException() {
+        assertThrows(NotFoundException.class,
+                () -> itemImporter.importItems(-1L, new ByteArrayInputStream(new byte[0])));
+    }
+
+    private List<ItemImportResultDto> importItems(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemImporter.importItems(owner.getId(), new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        List<ItemImportResultDto> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, ItemImportResultDto.class));
+        }
+        results.sort(Comparator.comparing(ItemImportResultDto::getRow));
+        return results;
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.PeriodDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemWithDatesDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class ItemServiceImplIntegrationTest {
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User owner;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        now = LocalDateTime.now().withNano(0);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void getAvailability_whenBookingsOverlap_thenBusyMergedAndWaitingAndRejectedIgnored() {
+        // Given
+        User booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        Item item = itemRepository.save(new Item(null, owner, "Дрель", "Простая дрель", true, null));
+        LocalDateTime from = now.plusDays(1);
+        bookingRepository.save(new Booking(null, from.plusDays(1), from.plusDays(3), item, booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, from.plusDays(2), from.plusDays(4), item, booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, from.plusDays(5), from.plusDays(6), item, booker, Status.REJECTED));
+        bookingRepository.save(new Booking(null, from.plusDays(6), from.plusDays(8), item, booker, Status.WAITING));
+        bookingRepository.save(new Booking(null, from.plusDays(9), from.plusDays(12), item, booker, Status.APPROVED));
+
+        // When
+        ItemAvailabilityDto result = itemService.getAvailability(item.getId(), from, from.plusDays(10));
+
+        // Then
+        assertEquals(List.of(
+                new PeriodDto(from.plusDays(1), from.plusDays(4)),
+                new PeriodDto(from.plusDays(9), from.plusDays(10))), result.getBusy());
+        assertEquals(List.of(
+                new PeriodDto(from, from.plusDays(1)),
+                new PeriodDto(from.plusDays(4), from.plusDays(9))), result.getFree());
+    }
+
+    @Test
+    void getAllItems_whenCommentsExceedLimit_thenReturnLatestComments() {
+        // Given
+        Item item = itemRepository.save(new Item(null, owner, "Дрель", "Простая дрель", true, null));
+        User author = userRepository.save(new User(null, "Author", "author@mail.ru"));
+        for (int i = 0; i < ItemServiceImpl.COMMENTS_PER_ITEM + 2; i++) {
+            commentRepository.save(new Comment(null, "Отзыв " + i, item, author, now.minusHours(i)));
+        }
+
+        // When
+        List<ItemWithDatesDto> result = itemService.getAllItems(owner.getId());
+
+        // Then
+        List<CommentDto> comments = result.get(0).getComments();
+        assertEquals(ItemServiceImpl.COMMENTS_PER_ITEM, comments.size());
+        assertEquals("Отзыв 0", comments.get(0).getText());
+        assertEquals("Author", comments.get(0).getAuthorName());
+        assertEquals(now, comments.get(0).getCreated());
+    }
+
+    @Test
+    void getAllItems_whenLongBookingHistory_thenReturnNearestLastAndNextBookings() {
+        // Given
+        Item item = itemRepository.save(new Item(null, owner, "Дрель", "Простая дрель", true, null));
+        User booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        bookingRepository.save(new Booking(null, now.minusDays(10), now.minusDays(9), item, booker, Status.APPROVED));
+        Booking last = bookingRepository.save(
+                new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, Status.REJECTED));
+        Booking next = bookingRepository.save(
+                new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(5), now.plusDays(6), item, booker, Status.APPROVED));
+
+        // When
+        ItemWithDatesDto result = itemService.getAllItems(owner.getId()).get(0);
+
+        // Then
+        assertEquals(last.getId(), result.getLastBooking().getId());
+        assertEquals(last.getEnd(), result.getLastBooking().getEnd());
+        assertEquals(booker.getId(), result.getLastBooking().getBookerId());
+        assertEquals(next.getId(), result.getNextBooking().getId());
+        assertEquals(next.getStart(), result.getNextBooking().getStart());
+    }
+
+    @Test
+    void getAllItems_whenMoreItems_thenStatementCountDoesNotGrow() {
+        // Given
+        createItemsWithHistory(2);
+        // первый вызов запоминает владельца в UserExistenceService
+        countStatements();
+        long fewItemsStatements = countStatements();
+        createItemsWithHistory(5);
+
+        // When
+        long manyItemsStatements = countStatements();
+
+        // Then
+        assertEquals(fewItemsStatements, manyItemsStatements);
+    }
+
+    @Test
+    void saveAll_whenManyItems_thenInsertedInOneBatch() {
+        // Given
+        entityManager.flush();
+        statistics.clear();
+        List<Item> items = IntStream.range(0, 20)
+                .mapToObj(i -> new Item(null, owner, "Вещь " + i, "Описание", true, null))
+                .toList();
+
+        // When
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        // Then
+        assertEquals(20, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                () -> "Подготовлено запросов: " + statistics.getPrepareStatementCount());
+    }
+
+    private long countStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        List<ItemWithDatesDto> items = itemService.getAllItems(owner.getId());
+        items.forEach(item -> assertNotNull(item.getComments()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createItemsWithHistory(int count) {
+        for (int i = 0; i < count; i++) {
+            User booker = userRepository.save(new User(null, "Booker", "booker" + System.nanoTime() + "@mail.ru"));
+            Item item = itemRepository.save(new Item(null, owner, "Вещь", "Описание", true, null));
+            bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker,
+                    Status.APPROVED));
+            commentRepository.save(new Comment(null, "Отзыв", item, booker, now));
+        }
+    }
+}
@@ -9,14 +9,20 @@ import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.PeriodDto;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.config.EntityCacheEvictor;
+import ru.practicum.shareit.exception.InvalidDatesException;
 import ru.practicum.shareit.exception.NoBookingFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -46,6 +52,9 @@ class ItemServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
     @Mock
     private ItemMapper itemMapper;
 
@@ -55,6 +64,15 @@ class ItemServiceImplTest {
     @Mock
     private CommentMapper commentMapper;
 
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @Mock
+    private UserExistenceService userExistenceService;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -88,13 +106,14 @@ class ItemServiceImplTest {
     @Test
     void getAllItems_whenUserNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemService.getAllItems(userId));
         assertEquals("Пользователь с данным id не найден", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verifyNoInteractions(itemRepository);
     }
 
@@ -117,6 +136,63 @@ class ItemServiceImplTest {
         verify(commentMapper).toCommentDto(comment);
     }
 
+    @Test
+    void getAvailability_whenBusyPeriodsInside_thenReturnGapsAsFree() {
+        // Given
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(10);
+        List<PeriodDto> busy = List.of(
+                new PeriodDto(from, from.plusDays(2)),
+                new PeriodDto(from.plusDays(4), from.plusDays(5)));
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingTimelineCache.busyPeriods(itemId, from, to)).thenReturn(busy);
+
+        // When
+        ItemAvailabilityDto result = itemService.getAvailability(itemId, from, to);
+
+        // Then
+        assertEquals(busy, result.getBusy());
+        assertEquals(List.of(
+                new PeriodDto(from.plusDays(2), from.plusDays(4)),
+                new PeriodDto(from.plusDays(5), to)), result.getFree());
+        assertEquals(from, result.getFrom());
+    }
+
+    @Test
+    void getAvailability_whenWindowInPast_thenNothingToShow() {
+        // Given
+        LocalDateTime from = LocalDateTime.now().minusDays(5);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+
+        // When
+        ItemAvailabilityDto result = itemService.getAvailability(itemId, from, from.plusDays(1));
+
+        // Then
+        assertTrue(result.getBusy().isEmpty());
+        assertTrue(result.getFree().isEmpty());
+        verify(bookingTimelineCache, never()).busyPeriods(any(), any(), any());
+    }
+
+    @Test
+    void getAvailability_whenEndNotAfterStart_thenThrowInvalidDatesException() {
+        // Given
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        // When & Then
+        assertThrows(InvalidDatesException.class, () -> itemService.getAvailability(itemId, from, from));
+        verify(itemRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getAvailability_whenItemNotFound_thenThrowNotFoundException() {
+        // Given
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        when(itemRepository.existsById(itemId)).thenReturn(false);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(itemId, from, from.plusDays(1)));
+    }
+
     @Test
     void getItemById_whenItemNotFound_thenThrowNotFoundException() {
         // Given
@@ -151,7 +227,7 @@ class ItemServiceImplTest {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemMapper.toItem(itemDto)).thenReturn(item);
-        when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(itemRequest));
+        when(itemRequestRepository.findWithVersionIncrementById(requestId)).thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(item)).thenReturn(item);
         when(itemMapper.toItemDto(item)).thenReturn(itemDto);
 
@@ -164,8 +240,9 @@ class ItemServiceImplTest {
         assertEquals(user, item.getOwner());
         assertEquals(itemRequest, item.getRequest());
         verify(userRepository).findById(userId);
-        verify(itemRequestRepository).findById(requestId);
+        verify(itemRequestRepository).findWithVersionIncrementById(requestId);
         verify(itemRepository).save(item);
+        verify(itemSearchEngine).index(item);
     }
 
     @Test
@@ -186,13 +263,13 @@ class ItemServiceImplTest {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemMapper.toItem(itemDto)).thenReturn(item);
-        when(itemRequestRepository.findById(requestId)).thenReturn(Optional.empty());
+        when(itemRequestRepository.findWithVersionIncrementById(requestId)).thenReturn(Optional.empty());
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemService.createItem(userId, itemDto));
         assertEquals("Запрос с данным id не найден", exception.getMessage());
-        verify(itemRequestRepository).findById(requestId);
+        verify(itemRequestRepository).findWithVersionIncrementById(requestId);
         verify(itemRepository, never()).save(any());
     }
 
@@ -203,7 +280,6 @@ class ItemServiceImplTest {
         Item updatedItem = new Item(itemId, user, "New Drill", "Simple drill", true, itemRequest);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRepository.save(item)).thenReturn(updatedItem);
         when(itemMapper.toItemDto(updatedItem)).thenReturn(
                 new ItemDto(itemId, "New Drill", "Simple drill", true, requestId));
@@ -216,8 +292,9 @@ class ItemServiceImplTest {
         assertEquals("New Drill", result.getName());
         assertEquals("Simple drill", result.getDescription()); // Старое значение сохранилось
         verify(itemRepository).findById(itemId);
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verify(itemRepository).save(item);
+        verify(itemSearchEngine).index(updatedItem);
     }
 
     @Test
@@ -227,11 +304,10 @@ class ItemServiceImplTest {
         ItemDto updateDto = new ItemDto(null, "New Name", null, null, null);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(otherUser));
 
         // When & Then
         ValidationException exception = assertThrows(ValidationException.class,
-                () -> itemService.updateItem(userId, itemId, updateDto));
+                () -> itemService.updateItem(otherUser.getId(), itemId, updateDto));
         assertEquals("Указанный идентификатор пользователя не совпадает с идентификатором владельца",
                 exception.getMessage());
         verify(itemRepository, never()).save(any());
@@ -253,7 +329,8 @@ class ItemServiceImplTest {
     void updateItem_whenUserNotFound_thenThrowNotFoundException() {
         // Given
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -274,15 +351,15 @@ class ItemServiceImplTest {
     void deleteItem_whenValid_thenDeleteItem() {
         // Given
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         // When
         itemService.deleteItem(userId, itemId);
 
         // Then
         verify(itemRepository).deleteById(itemId);
+        verify(itemSearchEngine).remove(itemId);
         verify(itemRepository).findById(itemId);
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
     }
 
     @Test
@@ -290,11 +367,10 @@ class ItemServiceImplTest {
         // Given
         User otherUser = new User(999L, "Other", "other@mail.ru");
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(otherUser));
 
         // When & Then
         ValidationException exception = assertThrows(ValidationException.class,
-                () -> itemService.deleteItem(userId, itemId));
+                () -> itemService.deleteItem(otherUser.getId(), itemId));
         assertEquals("Указанный идентификатор пользователя не совпадает с идентификатором владельца",
                 exception.getMessage());
         verify(itemRepository, never()).deleteById(any());
@@ -304,8 +380,7 @@ class ItemServiceImplTest {
     void searchItems_whenValidText_thenReturnMatchingItems() {
         // Given
         String searchText = "drill";
-        when(itemRepository.searchItems(searchText)).thenReturn(List.of(item));
-        when(itemMapper.toItemDto(item)).thenReturn(itemDto);
+        when(itemSearchEngine.search(searchText)).thenReturn(List.of(itemDto));
 
         // When
         List<ItemDto> result = itemService.searchItems(searchText);
@@ -314,7 +389,7 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(itemDto, result.get(0));
-        verify(itemRepository).searchItems(searchText);
+        verify(itemSearchEngine).search(searchText);
     }
 
     @Test
@@ -325,7 +400,7 @@ class ItemServiceImplTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).searchItems(any());
+        verify(itemSearchEngine, never()).search(any());
     }
 
     @Test
@@ -336,7 +411,7 @@ class ItemServiceImplTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).searchItems(any());
+        verify(itemSearchEngine, never()).search(any());
     }
 
     @Test
@@ -347,14 +422,14 @@ class ItemServiceImplTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).searchItems(any());
+        verify(itemSearchEngine, never()).search(any());
     }
 
     @Test
     void createComment_whenValid_thenReturnCommentDto() {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithVersionIncrementById(itemId)).thenReturn(Optional.of(item));
         when(bookingRepository.findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(
                 eq(itemId), eq(userId), eq(Status.APPROVED), any(LocalDateTime.class)))
                 .thenReturn(List.of(booking));
@@ -380,7 +455,7 @@ class ItemServiceImplTest {
     void createComment_whenNoCompletedBooking_thenThrowNoBookingFoundException() {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithVersionIncrementById(itemId)).thenReturn(Optional.of(item));
         when(bookingRepository.findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(
                 eq(itemId), eq(userId), eq(Status.APPROVED), any(LocalDateTime.class)))
                 .thenReturn(List.of());
@@ -401,14 +476,14 @@ class ItemServiceImplTest {
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemService.createComment(userId, itemId, commentDto));
         assertEquals("Пользователь с данным id не найден", exception.getMessage());
-        verify(itemRepository, never()).findById(any());
+        verify(itemRepository, never()).findWithVersionIncrementById(any());
     }
 
     @Test
     void createComment_whenItemNotFound_thenThrowNotFoundException() {
         // Given
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemRepository.findWithVersionIncrementById(itemId)).thenReturn(Optional.empty());
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final User owner = new User(1L, "Alex", "alex@mail.ru");
+    private final ItemRequest request = new ItemRequest(7L, "Нужна дрель", owner, null);
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(
+                new Item(1L, owner, "Шуруповерт", "Работает как дрель", true, null),
+                new Item(2L, owner, "Дрель", "Аккумуляторная", true, request),
+                new Item(3L, owner, "Молоток", "Обычный", true, null)
+        ));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_whenNameAndDescriptionMatch_thenNameMatchesGoFirst() {
+        List<ItemDto> result = searchEngine.search("ДРЕЛЬ");
+
+        assertEquals(List.of(2L, 1L), result.stream().map(ItemDto::getId).toList());
+        assertEquals(new ItemDto(2L, "Дрель", "Аккумуляторная", true, 7L), result.get(0));
+    }
+
+    @Test
+    void search_whenSubstringInsideWord_thenFound() {
+        assertEquals(List.of(2L), ids(searchEngine.search("кумулятор")));
+        assertEquals(List.of(3L), ids(searchEngine.search("олот")));
+    }
+
+    @Test
+    void search_whenQueryShorterThanGram_thenScanAllDocuments() {
+        assertEquals(List.of(2L, 1L), ids(searchEngine.search("др")));
+    }
+
+    @Test
+    void search_whenTrigramsMatchButNotAdjacent_thenNotFound() {
+        assertTrue(searchEngine.search("дрельмолоток").isEmpty());
+        assertTrue(searchEngine.search("ельдр").isEmpty());
+    }
+
+    @Test
+    void index_whenItemUpdated_thenOldTokensForgotten() {
+        searchEngine.index(new Item(3L, owner, "Кувалда", "Тяжелая", true, null));
+
+        assertTrue(searchEngine.search("молоток").isEmpty());
+        assertEquals(List.of(3L), ids(searchEngine.search("кувалда")));
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_thenRemovedFromIndex() {
+        searchEngine.index(new Item(2L, owner, "Дрель", "Аккумуляторная", false, null));
+
+        assertEquals(List.of(1L), ids(searchEngine.search("дрель")));
+
+        searchEngine.index(new Item(2L, owner, "Дрель", "Аккумуляторная", true, null));
+
+        assertEquals(List.of(2L, 1L), ids(searchEngine.search("дрель")));
+    }
+
+    @Test
+    void remove_whenItemDeleted_thenNotFound() {
+        searchEngine.remove(3L);
+
+        assertTrue(searchEngine.search("молоток").isEmpty());
+    }
+
+    @Test
+    void rebuild_whenItemUpdatedWhileSnapshotRead_thenUpdateKept() {
+        // Given - снимок прочитан до того, как изменение вещи 3 зафиксировано
+        when(itemRepository.findAllByAvailableTrue()).thenAnswer(invocation -> {
+            searchEngine.index(new Item(3L, owner, "Кувалда", "Тяжелая", true, null));
+            searchEngine.remove(1L);
+            return List.of(
+                    new Item(1L, owner, "Шуруповерт", "Работает как дрель", true, null),
+                    new Item(3L, owner, "Молоток", "Обычный", true, null)
+            );
+        });
+
+        // When
+        searchEngine.rebuild();
+
+        // Then
+        assertTrue(searchEngine.search("молоток").isEmpty());
+        assertEquals(List.of(3L), ids(searchEngine.search("кувалда")));
+        assertTrue(searchEngine.search("шуруповерт").isEmpty());
+    }
+
+    @Test
+    void rebuild_whenSnapshotBeingRead_thenSearchUsesPreviousIndex() {
+        // Given
+        List<List<Long>> duringRebuild = new ArrayList<>();
+        when(itemRepository.findAllByAvailableTrue()).thenAnswer(invocation -> {
+            duringRebuild.add(ids(searchEngine.search("дрель")));
+            return List.of();
+        });
+
+        // When
+        searchEngine.rebuild();
+
+        // Then
+        assertEquals(List.of(List.of(2L, 1L)), duringRebuild);
+        assertTrue(searchEngine.search("дрель").isEmpty());
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class JpaItemSearchEngineIntegrationTest {
+    @Autowired
+    private JpaItemSearchEngine searchEngine;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        owner = userRepository.save(new User(null, "Alex", "alex@mail.ru"));
+    }
+
+    @Test
+    void search_whenNameAndDescriptionMatch_thenNameMatchesGoFirst() {
+        // Given
+        Item byDescription = itemRepository.save(
+                new Item(null, owner, "Шуруповерт", "Работает как дрель", true, null));
+        Item byName = itemRepository.save(
+                new Item(null, owner, "Дрель", "Аккумуляторная", true, null));
+
+        // When
+        List<ItemDto> result = searchEngine.search("ДРЕЛЬ");
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(byName.getId(), result.get(0).getId());
+        assertEquals(byDescription.getId(), result.get(1).getId());
+    }
+
+    @Test
+    void search_whenItemNotAvailable_thenItemSkipped() {
+        // Given
+        itemRepository.save(new Item(null, owner, "Дрель", "Сломана", false, null));
+
+        // When
+        List<ItemDto> result = searchEngine.search("дрель");
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+}
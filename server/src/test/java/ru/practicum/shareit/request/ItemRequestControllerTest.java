@@ -6,6 +6,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
@@ -15,6 +17,7 @@ import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import static org.mockito.ArgumentMatchers.*;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -93,13 +96,17 @@ public class ItemRequestControllerTest {
 
     @Test
     void getRequestsAll() throws Exception {
-        Mockito.when(itemRequestService.getRequestsAll(anyLong()))
-                .thenReturn(List.of(itemRequestDto));
+        Mockito.when(itemRequestService.getRequestsAll(userId, created, 7L, 1))
+                .thenReturn(Window.from(List.of(itemRequestDto), ScrollPosition::offset, true));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId)
+                        .param("afterCreated", created.toString())
+                        .param("afterId", "7")
+                        .param("size", "1")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-More", "true"))
                 .andExpect(jsonPath("$[0].id", is(itemRequestDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].description", is(itemRequestDto.getDescription())))
                 .andExpect(jsonPath("$[0].created").exists());
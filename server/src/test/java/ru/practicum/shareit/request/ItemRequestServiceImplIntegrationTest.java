@@ -1,10 +1,16 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
@@ -16,6 +22,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,6 +41,12 @@ public class ItemRequestServiceImplIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private User user1;
     private User user2;
     private ItemRequestDto itemRequestDto;
@@ -151,7 +164,7 @@ public class ItemRequestServiceImplIntegrationTest {
         itemRequestService.createItemRequest(user2.getId(), request2);
 
         // When: user1 запрашивает все запросы (кроме своих)
-        List<ItemRequestDto> result = itemRequestService.getRequestsAll(user1.getId());
+        List<ItemRequestDto> result = itemRequestService.getRequestsAll(user1.getId(), null, null, 20).getContent();
 
         // Then: должен получить только запрос user2
         assertNotNull(result);
@@ -165,7 +178,7 @@ public class ItemRequestServiceImplIntegrationTest {
         itemRequestService.createItemRequest(user1.getId(), itemRequestDto);
 
         // When
-        List<ItemRequestDto> result = itemRequestService.getRequestsAll(user1.getId());
+        List<ItemRequestDto> result = itemRequestService.getRequestsAll(user1.getId(), null, null, 20).getContent();
 
         // Then
         assertNotNull(result);
@@ -185,7 +198,7 @@ public class ItemRequestServiceImplIntegrationTest {
 
         // When: user3 запрашивает все запросы
         User user3 = userRepository.save(new User(null, "Third", "third@mail.ru"));
-        List<ItemRequestDto> result = itemRequestService.getRequestsAll(user3.getId());
+        List<ItemRequestDto> result = itemRequestService.getRequestsAll(user3.getId(), null, null, 20).getContent();
 
         // Then: должны вернуться оба запроса в порядке убывания даты создания
         assertNotNull(result);
@@ -195,6 +208,63 @@ public class ItemRequestServiceImplIntegrationTest {
         assertEquals("Первый запрос", result.get(1).getDescription());
     }
 
+    @Test
+    void getRequestsAll_whenPagedWithCursor_thenEachRequestReturnedOnce() {
+        // Given: у запросов одинаковая дата создания, порядок задаёт id
+        for (int i = 0; i < 5; i++) {
+            itemRequestRepository.save(new ItemRequest(null, "Запрос " + i, user2, created));
+        }
+
+        // When
+        Window<ItemRequestDto> first = itemRequestService.getRequestsAll(user1.getId(), null, null, 2);
+        ItemRequestDto lastOfFirst = first.getContent().get(1);
+        Window<ItemRequestDto> second = itemRequestService.getRequestsAll(user1.getId(),
+                lastOfFirst.getCreated(), lastOfFirst.getId(), 2);
+        ItemRequestDto lastOfSecond = second.getContent().get(1);
+        Window<ItemRequestDto> third = itemRequestService.getRequestsAll(user1.getId(),
+                lastOfSecond.getCreated(), lastOfSecond.getId(), 2);
+
+        // Then
+        assertTrue(first.hasNext());
+        assertTrue(second.hasNext());
+        assertFalse(third.hasNext());
+        List<String> descriptions = Stream.of(first, second, third)
+                .flatMap(window -> window.getContent().stream())
+                .map(ItemRequestDto::getDescription)
+                .toList();
+        assertEquals(List.of("Запрос 4", "Запрос 3", "Запрос 2", "Запрос 1", "Запрос 0"), descriptions);
+    }
+
+    @Test
+    void getRequests_whenRequestsHaveItems_thenItemsReadWithoutLoadingEntities() {
+        // Given
+        ItemRequestDto first = itemRequestService.createItemRequest(user1.getId(), itemRequestDto);
+        ItemRequestDto second = itemRequestService.createItemRequest(user1.getId(),
+                ItemRequestDto.builder().description("Нужен молоток").build());
+        createItemForRequest("Дрель", user2, first.getId());
+        createItemForRequest("Перфоратор", user2, first.getId());
+        createItemForRequest("Молоток", user2, second.getId());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<ItemRequestWithItemsDto> result = itemRequestService.getRequests(user1.getId());
+
+        // Then
+        assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+        ItemRequestWithItemsDto firstWithItems = result.stream()
+                .filter(request -> request.getId().equals(first.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(List.of("Дрель", "Перфоратор"), firstWithItems.getItems().stream()
+                .map(ItemForRequestDto::getName)
+                .toList());
+        assertEquals(user2.getId(), firstWithItems.getItems().get(0).getOwnerId());
+    }
+
     @Test
     void getRequestById_whenValid_thenReturnRequestWithItems() {
         // Given
@@ -275,7 +345,7 @@ public class ItemRequestServiceImplIntegrationTest {
         Item item3 = createItemForRequest("Предмет 3", user3, request3.getId());
 
         // When: user3 запрашивает все запросы (кроме своих)
-        List<ItemRequestDto> allRequests = itemRequestService.getRequestsAll(user3.getId());
+        List<ItemRequestDto> allRequests = itemRequestService.getRequestsAll(user3.getId(), null, null, 20).getContent();
 
         // When: user1 запрашивает свои запросы
         List<ItemRequestWithItemsDto> user1Requests = itemRequestService.getRequests(user1.getId());
@@ -2,17 +2,22 @@ package ru.practicum.shareit.request;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import ru.practicum.shareit.exception.InvalidPageException;
 import ru.practicum.shareit.exception.NotFoundException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.dto.ItemForRequestView;
 import ru.practicum.shareit.item.dto.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -25,6 +30,9 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ItemRequestServiceImplTest {
+    @Mock
+    private UserExistenceService userExistenceService;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -103,13 +111,9 @@ public class ItemRequestServiceImplTest {
                 .name("Дрель")
                 .ownerId(2L)
                 .build();
-        Item item = new Item();
-        item.setId(10L);
-        item.setRequest(itemRequest);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        ItemForRequestView item = itemView(10L, requestId);
         when(itemRequestRepository.findAllByRequesterId(userId)).thenReturn(List.of(itemRequest));
-        when(itemRepository.findAllByRequestIdIn(List.of(requestId))).thenReturn(List.of(item));
+        when(itemRepository.findAllForRequests(List.of(requestId))).thenReturn(List.of(item));
         when(itemRequestMapper.toItemRequestWithItemsDto(itemRequest)).thenReturn(itemRequestWithItemsDto);
         when(itemMapper.toItemForRequestDto(item)).thenReturn(itemDto);
 
@@ -123,9 +127,9 @@ public class ItemRequestServiceImplTest {
         assertEquals(1, result.get(0).getItems().size());
         assertEquals(itemDto, result.get(0).getItems().get(0));
 
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verify(itemRequestRepository).findAllByRequesterId(userId);
-        verify(itemRepository).findAllByRequestIdIn(List.of(requestId));
+        verify(itemRepository).findAllForRequests(List.of(requestId));
         verify(itemRequestMapper).toItemRequestWithItemsDto(itemRequest);
         verify(itemMapper).toItemForRequestDto(item);
     }
@@ -133,9 +137,8 @@ public class ItemRequestServiceImplTest {
     @Test
     void getRequests_whenUserExistsAndNoItems_thenReturnListWithoutItems() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findAllByRequesterId(userId)).thenReturn(List.of(itemRequest));
-        when(itemRepository.findAllByRequestIdIn(List.of(requestId))).thenReturn(List.of());
+        when(itemRepository.findAllForRequests(List.of(requestId))).thenReturn(List.of());
         when(itemRequestMapper.toItemRequestWithItemsDto(itemRequest)).thenReturn(itemRequestWithItemsDto);
 
         // When
@@ -146,9 +149,9 @@ public class ItemRequestServiceImplTest {
         assertEquals(1, result.size());
         assertNull(result.get(0).getItems()); // или assertTrue если инициализируется пустым списком
 
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verify(itemRequestRepository).findAllByRequesterId(userId);
-        verify(itemRepository).findAllByRequestIdIn(List.of(requestId));
+        verify(itemRepository).findAllForRequests(List.of(requestId));
         verify(itemRequestMapper).toItemRequestWithItemsDto(itemRequest);
         verifyNoInteractions(itemMapper);
     }
@@ -156,46 +159,67 @@ public class ItemRequestServiceImplTest {
     @Test
     void getRequests_whenUserNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemRequestService.getRequests(userId));
         assertEquals("Пользователь с данным id не найден", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verifyNoInteractions(itemRequestRepository, itemRepository);
     }
 
     @Test
     void getRequestsAll_whenUserExists_thenReturnList() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findAllByRequesterIdNot(eq(userId), any())).thenReturn(List.of(itemRequest));
+        when(itemRequestRepository.findAllByRequesterIdNot(eq(userId), eq(ScrollPosition.keyset()), eq(Limit.of(20)),
+                eq(ItemRequestServiceImpl.ALL_REQUESTS_SORT)))
+                .thenReturn(Window.from(List.of(itemRequest), ScrollPosition::offset));
         when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
 
         // When
-        List<ItemRequestDto> result = itemRequestService.getRequestsAll(userId);
+        List<ItemRequestDto> result = itemRequestService.getRequestsAll(userId, null, null, 20).getContent();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(itemRequestDto, result.get(0));
 
-        verify(userRepository).findById(userId);
-        verify(itemRequestRepository).findAllByRequesterIdNot(eq(userId), any());
+        verify(userExistenceService).checkExists(userId);
+        verify(itemRequestRepository).findAllByRequesterIdNot(eq(userId), any(), any(), any());
         verify(itemRequestMapper).toItemRequestDto(itemRequest);
     }
 
     @Test
     void getRequestsAll_whenUserNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> itemRequestService.getRequestsAll(userId));
+                () -> itemRequestService.getRequestsAll(userId, null, null, 20));
         assertEquals("Пользователь с данным id не найден", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
+        verifyNoInteractions(itemRequestRepository);
+    }
+
+    @Test
+    void getRequestsAll_whenOnlyAfterIdGiven_thenThrowInvalidPageException() {
+        // When & Then
+        assertThrows(InvalidPageException.class,
+                () -> itemRequestService.getRequestsAll(userId, null, 5L, 20));
+        verifyNoInteractions(itemRequestRepository);
+    }
+
+    @Test
+    void getRequestsAll_whenSizeOutOfRange_thenThrowInvalidPageException() {
+        // When & Then
+        assertThrows(InvalidPageException.class,
+                () -> itemRequestService.getRequestsAll(userId, null, null, 0));
+        assertThrows(InvalidPageException.class,
+                () -> itemRequestService.getRequestsAll(userId, null, null, 101));
         verifyNoInteractions(itemRequestRepository);
     }
 
@@ -207,13 +231,10 @@ public class ItemRequestServiceImplTest {
                 .name("Дрель")
                 .ownerId(2L)
                 .build();
-        Item item = new Item();
-        item.setId(10L);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        ItemForRequestView item = itemView(10L, requestId);
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(itemRequest));
         when(itemRequestMapper.toItemRequestWithItemsDto(itemRequest)).thenReturn(itemRequestWithItemsDto);
-        when(itemRepository.findAllByRequestId(requestId)).thenReturn(List.of(item));
+        when(itemRepository.findAllForRequests(List.of(requestId))).thenReturn(List.of(item));
         when(itemMapper.toItemForRequestDto(item)).thenReturn(itemDto);
 
         // When
@@ -225,38 +246,62 @@ public class ItemRequestServiceImplTest {
         assertEquals(1, result.getItems().size());
         assertEquals(itemDto, result.getItems().get(0));
 
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verify(itemRequestRepository).findById(requestId);
         verify(itemRequestMapper).toItemRequestWithItemsDto(itemRequest);
-        verify(itemRepository).findAllByRequestId(requestId);
+        verify(itemRepository).findAllForRequests(List.of(requestId));
         verify(itemMapper).toItemForRequestDto(item);
     }
 
     @Test
     void getRequestById_whenUserNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь с данным id не найден"))
+                .when(userExistenceService).checkExists(userId);
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemRequestService.getRequestById(userId, requestId));
         assertEquals("Пользователь с данным id не найден", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verifyNoInteractions(itemRequestRepository);
     }
 
     @Test
     void getRequestById_whenRequestNotFound_thenThrowNotFoundException() {
         // Given
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.empty());
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemRequestService.getRequestById(userId, requestId));
         assertEquals("Запрос с данным id не найден", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userExistenceService).checkExists(userId);
         verify(itemRequestRepository).findById(requestId);
         verifyNoInteractions(itemRepository, itemMapper);
     }
+
+    private static ItemForRequestView itemView(Long itemId, Long requestId) {
+        return new ItemForRequestView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public String getName() {
+                return "Дрель";
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 2L;
+            }
+
+            @Override
+            public Long getRequestId() {
+                return requestId;
+            }
+        };
+    }
 }
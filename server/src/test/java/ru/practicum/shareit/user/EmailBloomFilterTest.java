@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void mightContain_whenNotBuilt_thenAssumeTaken() {
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, 1000, 0.01);
+
+        assertTrue(filter.mightContain("alex@mail.ru"));
+    }
+
+    @Test
+    void mightContain_whenEmailsLoadedAndAdded_thenNoFalseNegatives() {
+        // Given
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, 1000, 0.01);
+        when(userRepository.findAllEmails()).thenReturn(List.of("alex@mail.ru", "maria@mail.ru"));
+
+        // When
+        filter.rebuild();
+        filter.put("new@mail.ru");
+
+        // Then
+        assertTrue(filter.mightContain("alex@mail.ru"));
+        assertTrue(filter.mightContain("maria@mail.ru"));
+        assertTrue(filter.mightContain("new@mail.ru"));
+    }
+
+    @Test
+    void mightContain_whenEmailsAreNew_thenFalsePositiveRateNearConfigured() {
+        // Given
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, 10_000, 0.01);
+        when(userRepository.findAllEmails()).thenReturn(IntStream.range(0, 10_000)
+                .mapToObj(i -> "user" + i + "@mail.ru")
+                .toList());
+        filter.rebuild();
+
+        // When
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other" + i + "@yandex.ru"))
+                .count();
+
+        // Then
+        assertTrue(falsePositives < 300, "ложных срабатываний: " + falsePositives);
+    }
+}
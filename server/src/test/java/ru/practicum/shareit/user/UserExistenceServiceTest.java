@@ -0,0 +1,88 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceServiceTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserExistenceService userExistenceService;
+
+    @Test
+    void checkExists_whenCheckedTwice_thenDatabaseQueriedOnce() {
+        // Given
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        userExistenceService.checkExists(1L);
+        userExistenceService.checkExists(1L);
+
+        // Then
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void checkExists_whenRegisteredCreated_thenNoDatabaseQuery() {
+        // Given
+        userExistenceService.registerCreated(5L);
+
+        // When
+        userExistenceService.checkExists(5L);
+
+        // Then
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkExists_whenMissing_thenThrowAndAskDatabaseAgainNextTime() {
+        // Given
+        when(userRepository.existsById(2L)).thenReturn(false, true);
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> userExistenceService.checkExists(2L));
+        assertEquals("Пользователь с данным id не найден", exception.getMessage());
+        assertTrue(userExistenceService.exists(2L));
+    }
+
+    @Test
+    void exists_whenRegisteredDeleted_thenAskDatabase() {
+        // Given
+        userExistenceService.registerCreated(3L);
+        when(userRepository.existsById(3L)).thenReturn(false);
+
+        // When
+        userExistenceService.registerDeleted(3L);
+
+        // Then
+        assertFalse(userExistenceService.exists(3L));
+    }
+
+    @Test
+    void exists_whenCheckedBeforeDeleteCommitted_thenNotRememberedAfterIt() {
+        // Given - проверка видит пользователя, а удаление фиксируется до того, как она его запомнит
+        when(userRepository.existsById(4L)).thenAnswer(invocation -> {
+            userExistenceService.registerDeleted(4L);
+            return true;
+        });
+        assertTrue(userExistenceService.exists(4L));
+        when(userRepository.existsById(4L)).thenReturn(false);
+
+        // When
+        boolean exists = userExistenceService.exists(4L);
+
+        // Then
+        assertFalse(exists);
+        verify(userRepository, times(2)).existsById(4L);
+    }
+}
@@ -70,6 +70,18 @@ class UserServiceImplIntegrationTest {
         assertEquals(1, userRepository.findAll().size());
     }
 
+    @Test
+    void createUser_whenDuplicateEmailUnknownToBloomFilter_thenConstraintMappedToValidationException() {
+        // Given - пользователь сохранён в обход сервиса, фильтр Блума о его email не знает
+        String email = "bypass" + System.nanoTime() + "@mail.ru";
+        userRepository.save(new User(null, "Alex", email));
+
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> userService.createUser(new UserDto(null, "Another Alex", email)));
+        assertEquals("Пользователь с таким email уже существует", exception.getMessage());
+    }
+
     @Test
     void getAllUsers_whenUsersExist_thenReturnAllUsers() {
         // Given
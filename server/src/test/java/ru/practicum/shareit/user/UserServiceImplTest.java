@@ -6,12 +6,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -26,6 +29,12 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceService userExistenceService;
+
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -74,6 +83,7 @@ public class UserServiceImplTest {
         User savedUser = new User(1L, "Alex", "alex@mail.ru");
         UserDto expectedDto = new UserDto(1L, "Alex", "alex@mail.ru");
 
+        when(emailBloomFilter.mightContain("alex@mail.ru")).thenReturn(true);
         when(userRepository.findByEmail("alex@mail.ru")).thenReturn(Optional.empty());
         when(userMapper.toUser(inputDto)).thenReturn(userToSave);
         when(userRepository.save(userToSave)).thenReturn(savedUser);
@@ -83,11 +93,58 @@ public class UserServiceImplTest {
 
         // Then
         assertEquals(expectedDto, actualUser);
+        verify(emailBloomFilter).put("alex@mail.ru");
+    }
+
+    @Test
+    void createUser_whenEmailDefinitelyNew_thenSkipLookup() {
+        // Given
+        UserDto inputDto = new UserDto(null, "Alex", "alex@mail.ru");
+        User userToSave = new User(null, "Alex", "alex@mail.ru");
+        when(userMapper.toUser(inputDto)).thenReturn(userToSave);
+        when(userRepository.save(userToSave)).thenReturn(new User(1L, "Alex", "alex@mail.ru"));
+
+        // When
+        userService.createUser(inputDto);
+
+        // Then
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository).flush();
+    }
+
+    @Test
+    void createUser_whenUniqueConstraintViolated_thenThrowValidationException() {
+        // Given
+        User userToSave = new User(null, "Ivanov Ivan", "ivanov@gmail.com");
+        when(userMapper.toUser(userDto)).thenReturn(userToSave);
+        when(userRepository.save(userToSave)).thenReturn(userToSave);
+        doThrow(constraintViolation("UQ_USER_EMAIL")).when(userRepository).flush();
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(userDto))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Пользователь с таким email уже существует");
+        verify(emailBloomFilter, never()).put(any());
+    }
+
+    @Test
+    void createUser_whenOtherConstraintViolated_thenRethrow() {
+        // Given
+        User userToSave = new User(null, "Ivanov Ivan", "ivanov@gmail.com");
+        DataIntegrityViolationException violation = constraintViolation("PK_USER");
+        when(userMapper.toUser(userDto)).thenReturn(userToSave);
+        when(userRepository.save(userToSave)).thenReturn(userToSave);
+        doThrow(violation).when(userRepository).flush();
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(userDto)).isSameAs(violation);
+        verify(emailBloomFilter, never()).put(any());
     }
 
     @Test
     void createUser_shouldReturnValidationException() {
         // Given
+        when(emailBloomFilter.mightContain(userDto.getEmail())).thenReturn(true);
         when(userRepository.findByEmail(userDto.getEmail())).thenReturn(Optional.of(user));
 
         // When & Then
@@ -119,4 +176,9 @@ public class UserServiceImplTest {
         verify(userRepository, Mockito.times(1)).findById(1L);
         verify(userRepository, Mockito.times(1)).deleteById(1L);
     }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
 }